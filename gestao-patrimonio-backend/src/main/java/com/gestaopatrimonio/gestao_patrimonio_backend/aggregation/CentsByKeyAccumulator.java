@@ -0,0 +1,153 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.aggregation;
+
+import java.util.Arrays;
+
+/**
+ * Acumulador de centavos por chave long (tipicamente o id da categoria) em endereçamento aberto sobre arrays
+ * primitivos: somar uma linha não aloca objetos, ao contrário de groupingBy + BigDecimal::add num HashMap.
+ * Não é thread-safe; cada agregação usa a sua instância.
+ */
+public final class CentsByKeyAccumulator {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] cents;
+    private long[] counts;
+    private int mask;
+    private int size;
+    private long totalCents;
+    private long totalCount;
+
+    public CentsByKeyAccumulator() {
+        this(16);
+    }
+
+    public CentsByKeyAccumulator(int expectedKeys) {
+        allocate(tableSizeFor(Math.max(4, expectedKeys * 2)));
+    }
+
+    public void add(long key, long amountCents) {
+        add(key, amountCents, 1);
+    }
+
+    /** Soma uma linha já agregada (ex.: SUM/COUNT de um GROUP BY) que representa {@code count} lançamentos **/
+    public void add(long key, long amountCents, long count) {
+        int slot = slotFor(key);
+        cents[slot] = MoneyCents.add(cents[slot], amountCents);
+        counts[slot] += count;
+        totalCents = MoneyCents.add(totalCents, amountCents);
+        totalCount += count;
+    }
+
+    public long centsOf(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0L : cents[slot];
+    }
+
+    public long countOf(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0L : counts[slot];
+    }
+
+    public boolean contains(long key) {
+        return find(key) >= 0;
+    }
+
+    public long totalCents() {
+        return totalCents;
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.accept(keys[i], cents[i], counts[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void accept(long key, long cents, long count);
+    }
+
+    private int find(long key) {
+        checkKey(key);
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slotFor(long key) {
+        checkKey(key);
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            return slotFor(key);
+        }
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldCents = cents;
+        long[] oldCounts = counts;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                cents[slot] = oldCents[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        cents = new long[capacity];
+        counts = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Chave reservada: " + key);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int n) {
+        int highest = Integer.highestOneBit(n);
+        return highest == n ? n : highest << 1;
+    }
+}
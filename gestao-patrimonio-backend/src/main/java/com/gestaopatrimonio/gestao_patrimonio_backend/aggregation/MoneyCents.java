@@ -0,0 +1,32 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.aggregation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversões entre BigDecimal (precision = 10, scale = 2 nas entidades) e centavos em long.
+ * As somas internas são feitas em long; BigDecimal só aparece na fronteira com o banco e com a resposta.
+ */
+public final class MoneyCents {
+
+    private MoneyCents() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        // setScale não aloca quando a escala já é 2, que é o caso de tudo que vem das colunas monetárias
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static long add(long left, long right) {
+        long result = left + right;
+        // Estouro se os dois operandos têm o mesmo sinal e o resultado tem sinal diferente (mesmo teste do Math.addExact)
+        if (((left ^ result) & (right ^ result)) < 0) {
+            throw new ArithmeticException("Overflow ao somar valores monetários em centavos: " + left + " + " + right);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,195 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache em memória limitado por tamanho (LRU) e por tempo de vida, com contadores de acerto/erro/remoção.
+ *
+ * <p>Um valor carregado por {@link #get(Object, Function)} só é guardado se a mesma chave não foi invalidada
+ * durante o carregamento, para que uma leitura concorrente com uma escrita não reponha dados antigos.
+ * A invalidação de uma chave não afeta carregamentos de outras chaves.</p>
+ *
+ * <p>Com um {@code weigher}, o limite também vale para a soma dos pesos: valores de tamanho muito variável
+ * (respostas guardadas, por exemplo) saem por LRU quando o total passa de {@code maximumWeight}.</p>
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final long ttlNanos;
+    private final Map<K, CachedValue<V>> entries;
+    private long totalWeight; // guardado pelo lock de entries
+
+    // Carregamentos em andamento, um marcador por chave (guardado pelo lock de entries); só cresce com as cargas simultâneas
+    private final Map<K, Object> inFlightLoads = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public BoundedTtlCache(int maximumSize, Duration ttl) {
+        this(maximumSize, Long.MAX_VALUE, value -> 0L, ttl);
+    }
+
+    public BoundedTtlCache(int maximumSize, long maximumWeight, ToLongFunction<? super V> weigher, Duration ttl) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maximumSize) {
+                    evictions.increment();
+                    totalWeight -= eldest.getValue().weight;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            CachedValue<V> cached = entries.get(key);
+            if (cached == null) {
+                misses.increment();
+                return null;
+            }
+            if (cached.isExpired(System.nanoTime())) {
+                remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return cached.value;
+        }
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object loadToken = new Object();
+        synchronized (entries) {
+            inFlightLoads.put(key, loadToken);
+        }
+        V loaded = null;
+        try {
+            loaded = loader.apply(key);
+        } finally {
+            synchronized (entries) {
+                // Sem o marcador, a chave foi invalidada (ou recarregada por outra thread) durante a carga
+                boolean current = inFlightLoads.remove(key, loadToken);
+                if (current && loaded != null) {
+                    store(key, loaded, System.nanoTime());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        synchronized (entries) {
+            store(key, value, System.nanoTime());
+        }
+    }
+
+    /** Guarda {@code value} só se não houver valor vigente; devolve o valor vigente, ou null se guardou **/
+    public V putIfAbsent(K key, V value) {
+        synchronized (entries) {
+            CachedValue<V> cached = entries.get(key);
+            long now = System.nanoTime();
+            if (cached != null && !cached.isExpired(now)) {
+                hits.increment();
+                return cached.value;
+            }
+            if (cached != null) {
+                expirations.increment();
+            }
+            misses.increment();
+            store(key, value, now);
+            return null;
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            inFlightLoads.remove(key);
+            remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            inFlightLoads.clear();
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    public long weight() {
+        synchronized (entries) {
+            return totalWeight;
+        }
+    }
+
+    // Chamados com o lock de entries
+    private void store(K key, V value, long now) {
+        long weight = weigher.applyAsLong(value);
+        CachedValue<V> previous = entries.put(key, new CachedValue<>(value, now + ttlNanos, weight));
+        totalWeight += weight - (previous != null ? previous.weight : 0);
+        Iterator<CachedValue<V>> eldest = entries.values().iterator();
+        while (totalWeight > maximumWeight && eldest.hasNext()) {
+            totalWeight -= eldest.next().weight;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private void remove(K key) {
+        CachedValue<V> removed = entries.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight;
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size());
+    }
+
+    public record CacheStats(long hits, long misses, long evictions, long expirations, int size) {
+    }
+
+    private record CachedValue<V>(V value, long expiresAtNanos, long weight) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.config;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.cache.BoundedTtlCache;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.UserSnapshot;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.FinancialSummaryService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.IdempotencyService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.VerifiedToken;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public BoundedTtlCache<Long, FinancialSummaryService.VersionedSummary> financialSummaryCache(
+            @Value("${application.cache.summary.maximum-size:10000}") int maximumSize,
+            @Value("${application.cache.summary.ttl:PT5M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        BoundedTtlCache<Long, FinancialSummaryService.VersionedSummary> cache = new BoundedTtlCache<>(maximumSize, ttl);
+        bindMetrics(meterRegistry, "financialSummary", cache);
+        return cache;
+    }
+
+    /** Respostas de Idempotency-Key; limitado também pelo tamanho estimado (JSON) das respostas guardadas **/
+    @Bean
+    public BoundedTtlCache<String, IdempotencyService.StoredResponse> idempotencyCache(
+            @Value("${application.idempotency.maximum-size:100000}") int maximumSize,
+            @Value("${application.idempotency.maximum-weight:64MB}") DataSize maximumWeight,
+            @Value("${application.idempotency.ttl:PT24H}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        BoundedTtlCache<String, IdempotencyService.StoredResponse> cache = new BoundedTtlCache<>(
+                maximumSize, maximumWeight.toBytes(), IdempotencyService.StoredResponse::weight, ttl);
+        bindMetrics(meterRegistry, "idempotency", cache);
+        Gauge.builder("cache.weight", cache, BoundedTtlCache::weight)
+                .tag("cache", "idempotency")
+                .register(meterRegistry);
+        return cache;
+    }
+
+    /** Tokens JWT já verificados, por SHA-256 do token; cada entrada também respeita a expiração do próprio token **/
+    @Bean
+    public BoundedTtlCache<String, VerifiedToken> verifiedTokenCache(
+            @Value("${application.security.jwt.verified-cache.maximum-size:10000}") int maximumSize,
+            @Value("${application.security.jwt.verified-cache.ttl:PT5M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        BoundedTtlCache<String, VerifiedToken> cache = new BoundedTtlCache<>(maximumSize, ttl);
+        bindMetrics(meterRegistry, "verifiedToken", cache);
+        return cache;
+    }
+
+    /** Versão de token por usuário; o TTL é o atraso máximo de uma revogação feita em outra instância **/
+    @Bean
+    public BoundedTtlCache<Long, Long> tokenVersionCache(
+            @Value("${application.security.jwt.token-version-cache.maximum-size:100000}") int maximumSize,
+            @Value("${application.security.jwt.token-version-cache.ttl:PT30S}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        BoundedTtlCache<Long, Long> cache = new BoundedTtlCache<>(maximumSize, ttl);
+        bindMetrics(meterRegistry, "tokenVersion", cache);
+        return cache;
+    }
+
+    /** Snapshots imutáveis de usuário por id (login, autenticação por username, checagens de existência) **/
+    @Bean
+    public BoundedTtlCache<Long, UserSnapshot> userSnapshotCache(
+            @Value("${application.cache.users.maximum-size:10000}") int maximumSize,
+            @Value("${application.cache.users.ttl:PT10M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        BoundedTtlCache<Long, UserSnapshot> cache = new BoundedTtlCache<>(maximumSize, ttl);
+        bindMetrics(meterRegistry, "userSnapshot", cache);
+        return cache;
+    }
+
+    /** username → id; usernames não mudam, então a entrada só sai por tamanho, TTL ou cadastro **/
+    @Bean
+    public BoundedTtlCache<String, Long> userIdByUsernameCache(
+            @Value("${application.cache.users.maximum-size:10000}") int maximumSize,
+            @Value("${application.cache.users.ttl:PT10M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        BoundedTtlCache<String, Long> cache = new BoundedTtlCache<>(maximumSize, ttl);
+        bindMetrics(meterRegistry, "userIdByUsername", cache);
+        return cache;
+    }
+
+    // Mesmos nomes de métrica que o Micrometer usa para caches (cache.gets, cache.evictions, cache.size)
+    static void bindMetrics(MeterRegistry registry, String name, BoundedTtlCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().hits())
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, c -> c.stats().misses())
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictions())
+                .tag("cache", name).tag("cause", "size")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, c -> c.stats().expirations())
+                .tag("cache", name).tag("cause", "expired")
+                .register(registry);
+        Gauge.builder("cache.size", cache, BoundedTtlCache::size)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
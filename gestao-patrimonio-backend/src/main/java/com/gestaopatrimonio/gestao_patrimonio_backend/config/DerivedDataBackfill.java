@@ -0,0 +1,113 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.config;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.EntrySearchService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tabelas derivadas dos lançamentos (category_totals, monthly_rollups, entry_search_terms) só são mantidas a
+ * partir das escritas feitas depois de existirem. Na subida, cria as linhas que faltam a partir dos lançamentos já
+ * gravados, para que categorias antigas apareçam no resumo e nas séries temporais, e lançamentos antigos na busca,
+ * sem depender dos rebuilds manuais. Idempotente: só insere o que não existe.
+ */
+// Depois do EntityManagerFactory (o ddl-auto já criou as tabelas) e das sequences alinhadas (termos de busca usam sequence)
+@Component
+@DependsOn({"entityManagerFactory", "idSequenceAligner"})
+public class DerivedDataBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(DerivedDataBackfill.class);
+
+    // Outra instância (ou uma escrita já semeando a linha) pode inserir a mesma chave no meio do INSERT ... SELECT
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final List<String> CATEGORY_TOTALS = List.of(
+            categoryTotalsFrom("profit_entries", "PROFIT"),
+            categoryTotalsFrom("expense_entries", "EXPENSE")
+    );
+
+    private static final List<String> MONTHLY_ROLLUPS = List.of(
+            monthlyRollupsFrom("profit_entries", "PROFIT"),
+            monthlyRollupsFrom("expense_entries", "EXPENSE")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntrySearchService entrySearchService;
+
+    public DerivedDataBackfill(JdbcTemplate jdbcTemplate, EntrySearchService entrySearchService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entrySearchService = entrySearchService;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        run("category_totals", CATEGORY_TOTALS);
+        run("monthly_rollups", MONTHLY_ROLLUPS);
+        indexUnindexedEntries(EntryKind.PROFIT);
+        indexUnindexedEntries(EntryKind.EXPENSE);
+    }
+
+    // A tokenização é feita em Java (SearchTokenizer): um bloco por transação em vez de um INSERT ... SELECT
+    private void indexUnindexedEntries(EntryKind kind) {
+        long indexed = 0;
+        EntrySearchService.BackfillChunk chunk;
+        Long afterId = 0L;
+        do {
+            chunk = entrySearchService.indexUnindexed(kind, afterId);
+            afterId = chunk.lastId();
+            indexed += chunk.entries();
+        } while (!chunk.done());
+        if (indexed > 0) {
+            logger.info("Backfill de entry_search_terms: {} lançamento(s) de {} lidos para indexação", indexed, kind);
+        }
+    }
+
+    private void run(String table, List<String> statements) {
+        int inserted = 0;
+        for (String sql : statements) {
+            inserted += executeWithRetry(table, sql);
+        }
+        if (inserted > 0) {
+            logger.info("Backfill de {}: {} linha(s) criadas a partir dos lançamentos existentes", table, inserted);
+        }
+    }
+
+    private int executeWithRetry(String table, String sql) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return jdbcTemplate.update(sql);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    logger.warn("Backfill de {} incompleto; as linhas restantes são semeadas na próxima escrita", table, e);
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private static String categoryTotalsFrom(String entryTable, String kind) {
+        return "INSERT INTO category_totals (user_id, category_id, kind, total, entry_count) " +
+                "SELECT e.user_id, e.category_id, '" + kind + "', SUM(e.amount), COUNT(*) FROM " + entryTable + " e " +
+                "WHERE NOT EXISTS (SELECT 1 FROM category_totals t " +
+                "WHERE t.user_id = e.user_id AND t.category_id = e.category_id AND t.kind = '" + kind + "') " +
+                "GROUP BY e.user_id, e.category_id";
+    }
+
+    // month_key = yyyyMM e year_key = yyyy, como em MonthlyRollup.monthKeyOf
+    private static String monthlyRollupsFrom(String entryTable, String kind) {
+        String monthKey = "CAST(EXTRACT(YEAR FROM e.date) * 100 + EXTRACT(MONTH FROM e.date) AS INTEGER)";
+        return "INSERT INTO monthly_rollups (user_id, category_id, kind, month_key, year_key, total, entry_count) " +
+                "SELECT m.user_id, m.category_id, '" + kind + "', m.month_key, m.month_key / 100, m.total, m.entry_count FROM (" +
+                "SELECT e.user_id, e.category_id, " + monthKey + " AS month_key, SUM(e.amount) AS total, COUNT(*) AS entry_count " +
+                "FROM " + entryTable + " e GROUP BY e.user_id, e.category_id, " + monthKey + ") m " +
+                "WHERE NOT EXISTS (SELECT 1 FROM monthly_rollups r WHERE r.user_id = m.user_id AND r.category_id = m.category_id " +
+                "AND r.kind = '" + kind + "' AND r.month_key = m.month_key)";
+    }
+}
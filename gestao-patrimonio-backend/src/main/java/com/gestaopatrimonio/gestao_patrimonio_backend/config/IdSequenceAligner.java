@@ -0,0 +1,64 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lançamentos, termos de busca e snapshots de patrimônio passaram de IDENTITY para sequence. O ddl-auto cria a sequence começando em 1,
+ * mas as tabelas já têm ids; na subida cada sequence é levada para depois do maior id da sua tabela.
+ * Só avança: se a sequence já está à frente (outra instância, subida anterior), nada muda.
+ */
+// Depois do EntityManagerFactory: o ddl-auto já atualizou o schema (e criou as sequences) quando isto roda
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    // Mesmo allocationSize dos @SequenceGenerator das entidades
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCE_BY_TABLE = Map.of(
+            "profit_entries", "profit_entries_seq",
+            "expense_entries", "expense_entries_seq",
+            "entry_search_terms", "entry_search_terms_seq",
+            "net_worth_snapshots", "net_worth_snapshots_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        SEQUENCE_BY_TABLE.forEach((table, sequence) -> {
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // O primeiro bloco do pool (valor - allocationSize + 1 até valor) precisa ficar todo acima de maxId
+            long minimumValue = maxId + ALLOCATION_SIZE;
+            if ("PostgreSQL".equals(database)) {
+                jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), GREATEST((SELECT last_value FROM " + sequence + "), ?))",
+                        Long.class, sequence, minimumValue);
+            } else if ("H2".equals(database)) {
+                long nextValue = jdbcTemplate.queryForObject(
+                        "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                        Long.class, sequence.toUpperCase(Locale.ROOT));
+                if (nextValue <= minimumValue) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (minimumValue + 1));
+                }
+            } else {
+                logger.warn("Sequence {} not aligned: unsupported database {}", sequence, database);
+            }
+        });
+    }
+}
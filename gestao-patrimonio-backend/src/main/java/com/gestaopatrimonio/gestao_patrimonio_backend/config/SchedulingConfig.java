@@ -0,0 +1,9 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
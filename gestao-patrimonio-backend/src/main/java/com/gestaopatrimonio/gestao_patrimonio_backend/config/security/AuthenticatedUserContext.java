@@ -0,0 +1,32 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.config.security;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Usuário autenticado da requisição em curso. O SecurityContext é preso à thread e preenchido pelo
+ * JwtAuthenticationFilter a cada requisição, então o escopo é o da requisição; fora dela (jobs em executores)
+ * não há usuário corrente.
+ *
+ * <p>Para esse usuário a existência já foi confirmada no filtro (token verificado e versão de token vigente),
+ * e os serviços podem usar uma referência sem SELECT.</p>
+ */
+@Component
+public class AuthenticatedUserContext {
+
+    public Optional<Long> currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() instanceof User user) {
+            return Optional.ofNullable(user.getId());
+        }
+        return Optional.empty();
+    }
+
+    public boolean isCurrentUser(Long userId) {
+        return userId != null && currentUserId().filter(userId::equals).isPresent();
+    }
+}
@@ -1,6 +1,9 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.config.security;
 
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
 import com.gestaopatrimonio.gestao_patrimonio_backend.service.JwtService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.TokenVersionService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,10 +29,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService, TokenVersionService tokenVersionService) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
     }
 
     @Override
@@ -55,14 +60,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         logger.debug("JWT extracted: {}...", jwt.substring(0, Math.min(jwt.length(), 20)));
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Assinatura e expiração verificadas uma única vez; o resto da requisição usa o resultado
+            VerifiedToken token = jwtService.verify(jwt);
+            userEmail = token.subject();
             logger.debug("Username extracted from JWT: {}", userEmail);
 
             if(userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-                logger.debug("UserDetails loaded for: {}", userEmail);
+                UserDetails userDetails = resolvePrincipal(token);
+                logger.debug("UserDetails resolved for: {}", userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)){
+                if (userDetails != null && jwtService.isTokenValid(token, userDetails)){
                     logger.debug("Token is VALID for user: {}", userEmail);
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
@@ -78,7 +85,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                     logger.debug("SecurityContextHolder updated for: {}", userEmail);
                 } else {
-                    logger.error("Token NOT VALID for user: {} (might be expired or invalid signature)", userEmail);
+                    logger.error("Token NOT VALID for user: {} (revoked, expired or invalid signature)", userEmail);
                 }
             } else {
                 logger.debug("userEmail is null OR Authentication already exists: {} Auth context: {}", (userEmail == null ? "null" : userEmail), SecurityContextHolder.getContext().getAuthentication());
@@ -93,6 +100,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         logger.debug("Filter chain continued.");
     }
 
+    /**
+     * Tokens com uid/ver viram um principal só com as claims, sem consulta ao banco; a revogação é a versão
+     * de token servida de memória. Tokens antigos, sem essas claims, carregam o usuário e valem como versão 0:
+     * deixam de valer na primeira revogação. null = token revogado.
+     */
+    private UserDetails resolvePrincipal(VerifiedToken token) {
+        if (token.hasUserClaims()) {
+            return tokenVersionService.isCurrent(token.userId(), token.tokenVersion())
+                    ? User.authenticated(token.userId(), token.subject())
+                    : null;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(token.subject());
+        if (userDetails instanceof User user && !tokenVersionService.isCurrent(user.getId(), 0L)) {
+            return null;
+        }
+        return userDetails;
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -1,8 +1,10 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.config.security;
 
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.IdempotencyService;
 import com.gestaopatrimonio.gestao_patrimonio_backend.service.UserDetailsServiceImpl;
 import com.gestaopatrimonio.gestao_patrimonio_backend.config.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -37,6 +39,10 @@ public class SecurityConfig {
     @Value("${cors.allowed-origins:http://localhost:3000}") // Valor padrão para dev local
     private String corsAllowedOrigins;
 
+    // Custo do BCrypt; ao mudar, hashes antigos são refeitos no próximo login (PasswordEncoder.upgradeEncoding)
+    @Value("${application.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, UserDetailsServiceImpl userDetailsService) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.userDetailsService = userDetailsService;
@@ -49,6 +55,7 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Redespacho do SSE (/api/summary/stream) ao concluir; a requisição original já foi autenticada
                         .requestMatchers("/api/auth/**", "/h2-console/**", "/auth/**", "/favicon.ico", "/error", "/web/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -72,6 +79,8 @@ public class SecurityConfig {
         config.setAllowedOrigins(origins); // Usa a lista de origens lida da variável
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        // ETag: o front reenvia no If-None-Match; Idempotent-Replayed: o front distingue a repetição de uma criação nova
+        config.setExposedHeaders(List.of("ETag", IdempotencyService.REPLAYED_HEADER));
         config.setAllowCredentials(true);
         source.registerCorsConfiguration("/**", config);
         return source;
@@ -79,7 +88,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -5,10 +5,7 @@ import com.gestaopatrimonio.gestao_patrimonio_backend.dto.auth.AuthResponse;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.auth.LoginRequest;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.auth.RegisterRequest;
 import com.gestaopatrimonio.gestao_patrimonio_backend.service.AuthService;
-import lombok.RequiredArgsConstructor;
-import org.apache.coyote.Response;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,6 +14,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid; // Para habilitar a validação dos DTOs
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Respostas assíncronas: a thread do Tomcat é liberada enquanto o BCrypt roda no pool de hash.
+ * Pool saturado vira 503 (ServiceUnavailableException) antes mesmo de enfileirar.
+ */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -28,25 +32,34 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request){
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request){
         try {
-            String jwt = authService.register(request.getUsername(),
-                    request.getPassword());
-            return ResponseEntity.ok(new AuthResponse(jwt));
+            return authService.register(request.getUsername(), request.getPassword())
+                    .thenApply(jwt -> ResponseEntity.ok(new AuthResponse(jwt)))
+                    .exceptionally(e -> {
+                        // Cadastro concorrente com o mesmo username: a unique constraint falha depois do hash
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof IllegalArgumentException) {
+                            return ResponseEntity.badRequest().build();
+                        }
+                        throw e instanceof CompletionException completion ? completion : new CompletionException(cause);
+                    });
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request){
-        try{
-            String jwt = authService.login(request.getUsername(),
-                    request.getPassword());
-            return ResponseEntity.ok(new AuthResponse(jwt));
-        } catch (AuthenticationException e){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request){
+        return authService.login(request.getUsername(), request.getPassword())
+                .thenApply(jwt -> ResponseEntity.ok(new AuthResponse(jwt)))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof AuthenticationException) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+                    }
+                    throw e instanceof CompletionException completion ? completion : new CompletionException(cause);
+                });
     }
 
 }
@@ -5,6 +5,8 @@ import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryRespo
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User; // NOVO IMPORT: Importar a entidade User
 import com.gestaopatrimonio.gestao_patrimonio_backend.service.CategoryService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.DataVersionService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.IdempotencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -13,6 +15,7 @@ import org.springframework.security.core.Authentication; // NOVO IMPORT
 import org.springframework.security.core.context.SecurityContextHolder; // NOVO IMPORT
 import org.springframework.security.core.userdetails.UserDetails; // NOVO IMPORT
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,6 +26,8 @@ import java.util.stream.Collectors;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final DataVersionService dataVersionService;
+    private final IdempotencyService idempotencyService;
 
     private Long getAuthenticatedUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -44,16 +49,19 @@ public class CategoryController {
 
     @PostMapping
     public ResponseEntity<CategoryResponse> createCategory(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid
             @RequestBody
             CategoryRequest request){
-        try{
-            Long userId = getAuthenticatedUserId(); // Obtém o ID do usuário
-            CategoryResponse savedCategory = categoryService.createCategory(request, userId); // PASSA O userId
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedCategory);
-        } catch (IllegalArgumentException e){
-            return ResponseEntity.badRequest().build();
-        }
+        Long userId = getAuthenticatedUserId(); // Obtém o ID do usuário
+        return idempotencyService.execute(userId, "POST /api/categories", idempotencyKey, request, () -> {
+            try{
+                CategoryResponse savedCategory = categoryService.createCategory(request, userId); // PASSA O userId
+                return ResponseEntity.status(HttpStatus.CREATED).body(savedCategory);
+            } catch (IllegalArgumentException e){
+                return ResponseEntity.badRequest().build();
+            }
+        });
     }
 
     @GetMapping("/{id}")
@@ -65,10 +73,10 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CategoryResponse>> getAllCategories(){
+    public ResponseEntity<List<CategoryResponse>> getAllCategories(WebRequest webRequest){
         Long userId = getAuthenticatedUserId(); // Obtém o ID do usuário
-        List<CategoryResponse> categories = categoryService.getAllCategoriesByUserId(userId); // CHAMA O MÉTODO COM userId
-        return ResponseEntity.ok(categories);
+        return ConditionalGet.respond(webRequest, dataVersionService.etag("categories", userId),
+                () -> categoryService.getAllCategoriesByUserId(userId)); // Só monta a lista se a versão mudou
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,62 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.controller;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.rule.CategoryRuleRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.rule.CategoryRuleResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.CategoryRuleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/** Regras de categorização usadas na importação de extratos **/
+@RestController
+@RequestMapping("/api/category-rules")
+@RequiredArgsConstructor
+public class CategoryRuleController {
+
+    private final CategoryRuleService categoryRuleService;
+
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            if (userDetails instanceof User user) {
+                return user.getId();
+            }
+        }
+        throw new IllegalStateException("User not authenticated or ID not available.");
+    }
+
+    @GetMapping
+    public ResponseEntity<List<CategoryRuleResponse>> getRules() {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(categoryRuleService.getRules(userId));
+    }
+
+    @PostMapping
+    public ResponseEntity<CategoryRuleResponse> createRule(@Valid @RequestBody CategoryRuleRequest request) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(categoryRuleService.createRule(userId, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long id) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            categoryRuleService.deleteRule(userId, id);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
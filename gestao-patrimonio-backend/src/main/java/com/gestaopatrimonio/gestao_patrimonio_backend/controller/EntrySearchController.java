@@ -0,0 +1,61 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.controller;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.search.EntrySearchResultResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.search.SearchReindexResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.DataVersionService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.EntrySearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/entries")
+@RequiredArgsConstructor
+public class EntrySearchController {
+
+    private final EntrySearchService entrySearchService;
+    private final DataVersionService dataVersionService;
+
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            if (userDetails instanceof User user) {
+                return user.getId();
+            }
+        }
+        throw new IllegalStateException("User not authenticated or ID not available.");
+    }
+
+    /** Busca por prefixo nas descrições de lucros e gastos, ordenada por relevância **/
+    @GetMapping("/search")
+    public ResponseEntity<List<EntrySearchResultResponse>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            return ConditionalGet.respond(webRequest, dataVersionService.etag("search", userId),
+                    () -> entrySearchService.search(userId, query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Recria o índice de busca do usuário a partir dos lançamentos existentes **/
+    @PostMapping("/search/reindex")
+    public ResponseEntity<SearchReindexResponse> reindex() {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(entrySearchService.rebuild(userId));
+    }
+}
@@ -1,14 +1,27 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.controller;
 
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBulkResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryFilterRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryPageResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRecategorizeRequest;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRequest;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.DataVersionService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.EntryBulkService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.EntryPage;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.IdempotencyService;
 import com.gestaopatrimonio.gestao_patrimonio_backend.service.ExpenseEntryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,11 +32,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/expenses")
@@ -31,6 +48,10 @@ import java.util.stream.Collectors;
 public class ExpenseEntryController {
 
     private final ExpenseEntryService expenseEntryService;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotencyService;
+    private final EntryBulkService entryBulkService;
 
     private EntryResponse mapToResponse(ExpenseEntry entry){
         CategoryResponse categoryResponse = new CategoryResponse(
@@ -47,6 +68,10 @@ public class ExpenseEntryController {
         );
     }
 
+    private EntryPageResponse mapToPageResponse(EntryPage<EntryResponse> page) {
+        return new EntryPageResponse(page.items(), page.next() != null ? page.next().encode() : null);
+    }
+
     private Long getAuthenticatedUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
@@ -58,49 +83,138 @@ public class ExpenseEntryController {
     }
 
     @PostMapping
-    public ResponseEntity<EntryResponse> createExpenseEntry(@Valid @RequestBody EntryRequest request) {
+    public ResponseEntity<EntryResponse> createExpenseEntry(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody EntryRequest request) {
         Long userId = getAuthenticatedUserId();
-        ExpenseEntry expenseEntry = new ExpenseEntry();
-        expenseEntry.setDescription(request.getDescription());
-        expenseEntry.setAmount(request.getAmount());
-        expenseEntry.setDate(request.getDate());
+        // Repetição com a mesma chave devolve o lançamento já criado, sem novo insert
+        return idempotencyService.execute(userId, "POST /api/expenses", idempotencyKey, request, () -> {
+            ExpenseEntry expenseEntry = new ExpenseEntry();
+            expenseEntry.setDescription(request.getDescription());
+            expenseEntry.setAmount(request.getAmount());
+            expenseEntry.setDate(request.getDate());
 
-        try {
-            ExpenseEntry savedEntry = expenseEntryService.createExpenseEntry(userId, request.getCategoryId(), expenseEntry);
-            return ResponseEntity.status(HttpStatus.CREATED).body(mapToResponse(savedEntry));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(null);
-        }
+            try {
+                ExpenseEntry savedEntry = expenseEntryService.createExpenseEntry(userId, request.getCategoryId(), expenseEntry);
+                return ResponseEntity.status(HttpStatus.CREATED).body(mapToResponse(savedEntry));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(null);
+            }
+        });
+    }
+
+    /** Criação em lote (até 5000 itens): 201 se algum item foi criado; cada item volta com id ou erro **/
+    @PostMapping("/batch")
+    public ResponseEntity<EntryBatchResponse> createExpenseEntries(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody List<EntryRequest> requests) {
+        Long userId = getAuthenticatedUserId();
+        return idempotencyService.execute(userId, "POST /api/expenses/batch", idempotencyKey, requests, () -> {
+            try {
+                EntryBatchResponse report = expenseEntryService.createExpenseEntries(userId, requests);
+                return ResponseEntity.status(report.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(report);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<EntryResponse> getExpenseEntryById(@PathVariable Long id) {
         Long userId = getAuthenticatedUserId();
         return expenseEntryService.getExpenseEntryByIdAndUser(id, userId)
-                .map(this::mapToResponse)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<EntryResponse>> getAllExpenseEntries() {
+    public ResponseEntity<List<EntryResponse>> getAllExpenseEntries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
         Long userId = getAuthenticatedUserId();
-        List<EntryResponse> expenseEntries = expenseEntryService.getAllExpenseEntriesByUser(userId)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(expenseEntries);
+        return ConditionalGet.respond(webRequest, dataVersionService.etag("expenses", userId), () ->
+                expenseEntryService.getAllExpenseEntriesByUser(userId, from, to));
     }
 
     /** NOVO ENDPOINT: Obter histórico de gastos por ID de categoria **/
     @GetMapping("/byCategory/{categoryId}")
-    public ResponseEntity<List<EntryResponse>> getExpensesByCategoryId(@PathVariable Long categoryId) {
+    public ResponseEntity<List<EntryResponse>> getExpensesByCategoryId(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        return ConditionalGet.respond(webRequest, dataVersionService.etag("expenses", userId), () ->
+                expenseEntryService.getExpenseEntriesByCategoryIdAndUser(categoryId, userId, from, to));
+    }
+
+    /** Listagem paginada por cursor: ?size=(máx. 200)&cursor=<next da página anterior> **/
+    @GetMapping("/page")
+    public ResponseEntity<EntryPageResponse> getExpenseEntriesPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            return ConditionalGet.respond(webRequest, dataVersionService.etag("expenses", userId), () ->
+                    mapToPageResponse(expenseEntryService.getExpenseEntriesPageByUser(userId, from, to, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/byCategory/{categoryId}/page")
+    public ResponseEntity<EntryPageResponse> getExpenseEntriesPageByCategoryId(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            return ConditionalGet.respond(webRequest, dataVersionService.etag("expenses", userId), () ->
+                    mapToPageResponse(expenseEntryService.getExpenseEntriesPageByCategoryIdAndUser(categoryId, userId, from, to, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Filtros combináveis: ?categoryIds=1,2&minAmount=&maxAmount=&from=&to=&q=&size=&cursor= **/
+    @GetMapping("/filter")
+    public ResponseEntity<EntryPageResponse> getExpenseEntriesFiltered(EntryFilterRequest filter, WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            return ConditionalGet.respond(webRequest, dataVersionService.etag("expenses", userId), () ->
+                    mapToPageResponse(expenseEntryService.getExpenseEntriesFiltered(userId, filter)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Histórico completo em streaming: memória constante por requisição, independente do tamanho do histórico **/
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamExpenseEntries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = getAuthenticatedUserId();
+        StreamingResponseBody body = out -> JsonArrayStream.<EntryResponse>write(objectMapper, out,
+                sink -> expenseEntryService.streamExpenseEntries(userId, null, from, to, sink));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping(value = "/byCategory/{categoryId}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamExpenseEntriesByCategoryId(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         Long userId = getAuthenticatedUserId();
-        List<ExpenseEntry> expenses = expenseEntryService.getExpenseEntriesByCategoryIdAndUser(categoryId, userId);
-        List<EntryResponse> expenseDTOs = expenses.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(expenseDTOs);
+        StreamingResponseBody body = out -> JsonArrayStream.<EntryResponse>write(objectMapper, out,
+                sink -> expenseEntryService.streamExpenseEntries(userId, categoryId, from, to, sink));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PutMapping("/{id}")
@@ -131,4 +245,26 @@ public class ExpenseEntryController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    /** Move para outra categoria, num único UPDATE, os lançamentos da categoria de origem (opcionalmente filtrados) **/
+    @PostMapping("/bulk/recategorize")
+    public ResponseEntity<EntryBulkResponse> recategorizeExpenseEntries(@Valid @RequestBody EntryRecategorizeRequest request) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            return ResponseEntity.ok(entryBulkService.recategorize(userId, EntryKind.EXPENSE, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Exclui, num único DELETE, os lançamentos que atendem ao filtro; exige ao menos um critério **/
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<EntryBulkResponse> deleteExpenseEntries(@RequestBody EntryFilterRequest filter) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            return ResponseEntity.ok(entryBulkService.delete(userId, EntryKind.EXPENSE, filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,37 +1,48 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.controller;
 
-import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryResponse;
-import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.CategorySummaryResponse;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.FinancialSummaryResponse;
-import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
-import com.gestaopatrimonio.gestao_patrimonio_backend.model.ProfitEntry;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.NetWorthSnapshotResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.TimeSeriesGranularity;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.TimeSeriesResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.TotalsReconciliationResponse;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
 
-import com.gestaopatrimonio.gestao_patrimonio_backend.service.CategoryService;
-import com.gestaopatrimonio.gestao_patrimonio_backend.service.ExpenseEntryService;
-import com.gestaopatrimonio.gestao_patrimonio_backend.service.ProfitEntryService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.CategoryTotalsService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.DataVersionService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.FinancialSummaryService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.MonthlyRollupService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.NetWorthSnapshotService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.SummaryStreamService;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.ArrayList;
 
 @RestController
 @RequestMapping("/api/summary")
 @RequiredArgsConstructor
 public class FinancialSummaryController {
 
-    private final ProfitEntryService profitEntryService;
-    private final ExpenseEntryService expenseEntryService;
-    private final CategoryService categoryService;
+    private final FinancialSummaryService financialSummaryService;
+    private final CategoryTotalsService categoryTotalsService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final DataVersionService dataVersionService;
+    private final SummaryStreamService summaryStreamService;
+    private final NetWorthSnapshotService netWorthSnapshotService;
 
     private Long getAuthenticatedUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -44,37 +55,63 @@ public class FinancialSummaryController {
     }
 
     @GetMapping
-    public ResponseEntity<FinancialSummaryResponse> getFinancialSummary() {
+    public ResponseEntity<FinancialSummaryResponse> getFinancialSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
         Long userId = getAuthenticatedUserId();
+        // A mesma versão vai na ETag e na leitura do resumo: o corpo nunca é de uma versão anterior à da ETag
+        long version = dataVersionService.getDataVersion(userId);
+        return ConditionalGet.respond(webRequest, dataVersionService.etag("summary", userId, version),
+                () -> financialSummaryService.getFinancialSummary(userId, version, from, to));
+    }
 
-        List<ProfitEntry> profits = profitEntryService.getAllProfitEntriesByUser(userId);
-        List<ExpenseEntry> expenses = expenseEntryService.getAllExpenseEntriesByUser(userId);
-
-        BigDecimal totalProfits = profits.stream()
-                .map(ProfitEntry::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalExpenses = expenses.stream()
-                .map(ExpenseEntry::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal netWorth = totalProfits.subtract(totalExpenses);
-
-        List<CategorySummaryResponse> profitsByCategory = profitEntryService.getProfitsSummaryByCategoryAndUser(userId);
-        List<CategorySummaryResponse> expensesByCategory = expenseEntryService.getExpensesSummaryByCategoryAndUser(userId);
+    /** Stream SSE: envia o resumo atual na conexão e um novo evento "summary" a cada alteração dos dados do usuário **/
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFinancialSummary() {
+        Long userId = getAuthenticatedUserId();
+        return summaryStreamService.subscribe(userId);
+    }
 
-        List<CategoryResponse> allCategories = categoryService.getAllCategoriesByUserId(userId);
+    /** Série temporal (mensal ou anual) de lucros, gastos e saldo, lida dos agregados mensais **/
+    @GetMapping("/timeseries")
+    public ResponseEntity<TimeSeriesResponse> getTimeSeries(
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean splitByCategory) {
+        Long userId = getAuthenticatedUserId();
+        TimeSeriesGranularity parsedGranularity;
+        try {
+            parsedGranularity = TimeSeriesGranularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(monthlyRollupService.getTimeSeries(userId, parsedGranularity, from, to, splitByCategory));
+    }
 
+    /** Patrimônio ao fim de cada dia, lido dos snapshots diários (um registro por dia do intervalo) **/
+    @GetMapping("/history")
+    public ResponseEntity<List<NetWorthSnapshotResponse>> getNetWorthHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(netWorthSnapshotService.getHistory(userId, from, to));
+    }
 
-        FinancialSummaryResponse summary = new FinancialSummaryResponse(
-                totalProfits,
-                totalExpenses,
-                netWorth,
-                profitsByCategory,
-                expensesByCategory,
-                allCategories
-        );
+    /** Recalcula os totais por categoria a partir dos lançamentos e apenas reporta divergências **/
+    @GetMapping("/totals/verify")
+    public ResponseEntity<TotalsReconciliationResponse> verifyCategoryTotals() {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(categoryTotalsService.reconcile(userId, false));
+    }
 
-        return ResponseEntity.ok(summary);
+    /** Recalcula os totais por categoria (corrigindo divergências) e recria os agregados mensais **/
+    @PostMapping("/totals/rebuild")
+    public ResponseEntity<TotalsReconciliationResponse> rebuildCategoryTotals() {
+        Long userId = getAuthenticatedUserId();
+        TotalsReconciliationResponse report = categoryTotalsService.reconcile(userId, true);
+        monthlyRollupService.rebuild(userId);
+        return ResponseEntity.ok(report);
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.controller;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.ledger.LedgerPageResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.DataVersionService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+    private final DataVersionService dataVersionService;
+
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            if (userDetails instanceof User user) {
+                return user.getId();
+            }
+        }
+        throw new IllegalStateException("User not authenticated or ID not available.");
+    }
+
+    /** Lucros e gastos intercalados por data (mais recentes primeiro), paginados por cursor **/
+    @GetMapping
+    public ResponseEntity<LedgerPageResponse> getLedger(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        try {
+            return ConditionalGet.respond(webRequest, dataVersionService.etag("ledger", userId),
+                    () -> ledgerService.getLedgerPage(userId, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
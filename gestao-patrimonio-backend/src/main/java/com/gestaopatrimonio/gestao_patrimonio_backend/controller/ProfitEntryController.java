@@ -1,14 +1,27 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.controller;
 
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBulkResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryFilterRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryPageResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRecategorizeRequest;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRequest;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.ProfitEntry;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.DataVersionService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.EntryBulkService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.EntryPage;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.IdempotencyService;
 import com.gestaopatrimonio.gestao_patrimonio_backend.service.ProfitEntryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,11 +32,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/profits")
@@ -31,6 +48,10 @@ import java.util.stream.Collectors;
 public class ProfitEntryController {
 
     private final ProfitEntryService profitEntryService;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyService idempotencyService;
+    private final EntryBulkService entryBulkService;
 
     private EntryResponse mapToResponse(ProfitEntry entry){
         CategoryResponse categoryResponse = new CategoryResponse(
@@ -47,6 +68,10 @@ public class ProfitEntryController {
         );
     }
 
+    private EntryPageResponse mapToPageResponse(EntryPage<EntryResponse> page) {
+        return new EntryPageResponse(page.items(), page.next() != null ? page.next().encode() : null);
+    }
+
     private Long getAuthenticationUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if(authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails){
@@ -58,51 +83,137 @@ public class ProfitEntryController {
     }
 
     @PostMapping
-    public ResponseEntity<EntryResponse> createProfitEntry(@Valid @RequestBody EntryRequest request){
+    public ResponseEntity<EntryResponse> createProfitEntry(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody EntryRequest request) {
         Long userId = getAuthenticationUserId();
-        ProfitEntry profitEntry = new ProfitEntry();
+        // Repetição com a mesma chave devolve o lançamento já criado, sem novo insert
+        return idempotencyService.execute(userId, "POST /api/profits", idempotencyKey, request, () -> {
+            ProfitEntry profitEntry = new ProfitEntry();
+            profitEntry.setDescription(request.getDescription());
+            profitEntry.setAmount(request.getAmount());
+            profitEntry.setDate(request.getDate());
 
-        profitEntry.setDescription(request.getDescription());
-        profitEntry.setAmount(request.getAmount());
-        profitEntry.setDate(request.getDate());
+            try {
+                ProfitEntry savedEntry = profitEntryService.createProfitEntry(userId, request.getCategoryId(), profitEntry);
+                return ResponseEntity.status(HttpStatus.CREATED).body(mapToResponse(savedEntry));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(null);
+            }
+        });
+    }
 
-        try {
-            ProfitEntry savedEntry = profitEntryService.createProfitEntry(userId, request.getCategoryId(), profitEntry);
-            return ResponseEntity.status(HttpStatus.CREATED).body(mapToResponse(savedEntry));
-        } catch (IllegalArgumentException e){
-            return ResponseEntity.badRequest().body(null);
-        }
+    /** Criação em lote (até 5000 itens): 201 se algum item foi criado; cada item volta com id ou erro **/
+    @PostMapping("/batch")
+    public ResponseEntity<EntryBatchResponse> createProfitEntries(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody List<EntryRequest> requests) {
+        Long userId = getAuthenticationUserId();
+        return idempotencyService.execute(userId, "POST /api/profits/batch", idempotencyKey, requests, () -> {
+            try {
+                EntryBatchResponse report = profitEntryService.createProfitEntries(userId, requests);
+                return ResponseEntity.status(report.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(report);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<EntryResponse> getProfitEntryById(@PathVariable Long id){
         Long userId = getAuthenticationUserId();
         return profitEntryService.getProfitEntryByIdAndUser(id, userId)
-                .map(this::mapToResponse)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/byCategory/{categoryId}")
-    public ResponseEntity<List<EntryResponse>> getProfitsByCategoryId(@PathVariable Long categoryId) {
+    public ResponseEntity<List<EntryResponse>> getProfitsByCategoryId(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
         Long userId = getAuthenticationUserId();
-        List<ProfitEntry> profitEntries = profitEntryService.getProfitEntriesByCategoryIdAndUser(categoryId, userId);
+        return ConditionalGet.respond(webRequest, dataVersionService.etag("profits", userId), () ->
+                profitEntryService.getProfitEntriesByCategoryIdAndUser(categoryId, userId, from, to));
+    }
 
-        List<EntryResponse> responses = profitEntries.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    @GetMapping
+    public ResponseEntity<List<EntryResponse>> getAllProfitEntries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest){
+        Long userId = getAuthenticationUserId();
+        return ConditionalGet.respond(webRequest, dataVersionService.etag("profits", userId), () ->
+                profitEntryService.getAllProfitEntriesByUser(userId, from, to));
+    }
 
-        return ResponseEntity.ok(responses);
+    /** Listagem paginada por cursor: ?size=(máx. 200)&cursor=<next da página anterior> **/
+    @GetMapping("/page")
+    public ResponseEntity<EntryPageResponse> getProfitEntriesPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = getAuthenticationUserId();
+        try {
+            return ConditionalGet.respond(webRequest, dataVersionService.etag("profits", userId), () ->
+                    mapToPageResponse(profitEntryService.getProfitEntriesPageByUser(userId, from, to, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
-    @GetMapping
-    public ResponseEntity<List<EntryResponse>> getAllProfitEntries(){
+    @GetMapping("/byCategory/{categoryId}/page")
+    public ResponseEntity<EntryPageResponse> getProfitEntriesPageByCategoryId(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        Long userId = getAuthenticationUserId();
+        try {
+            return ConditionalGet.respond(webRequest, dataVersionService.etag("profits", userId), () ->
+                    mapToPageResponse(profitEntryService.getProfitEntriesPageByCategoryIdAndUser(categoryId, userId, from, to, cursor, size)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Filtros combináveis: ?categoryIds=1,2&minAmount=&maxAmount=&from=&to=&q=&size=&cursor= **/
+    @GetMapping("/filter")
+    public ResponseEntity<EntryPageResponse> getProfitEntriesFiltered(EntryFilterRequest filter, WebRequest webRequest) {
+        Long userId = getAuthenticationUserId();
+        try {
+            return ConditionalGet.respond(webRequest, dataVersionService.etag("profits", userId), () ->
+                    mapToPageResponse(profitEntryService.getProfitEntriesFiltered(userId, filter)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Histórico completo em streaming: memória constante por requisição, independente do tamanho do histórico **/
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProfitEntries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         Long userId = getAuthenticationUserId();
-        List<EntryResponse> profitEntries = profitEntryService.getAllProfitEntriesByUser(userId)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(profitEntries);
+        StreamingResponseBody body = out -> JsonArrayStream.<EntryResponse>write(objectMapper, out,
+                sink -> profitEntryService.streamProfitEntries(userId, null, from, to, sink));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping(value = "/byCategory/{categoryId}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProfitEntriesByCategoryId(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Long userId = getAuthenticationUserId();
+        StreamingResponseBody body = out -> JsonArrayStream.<EntryResponse>write(objectMapper, out,
+                sink -> profitEntryService.streamProfitEntries(userId, categoryId, from, to, sink));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PutMapping("/{id}")
@@ -133,4 +244,26 @@ public class ProfitEntryController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+
+    /** Move para outra categoria, num único UPDATE, os lançamentos da categoria de origem (opcionalmente filtrados) **/
+    @PostMapping("/bulk/recategorize")
+    public ResponseEntity<EntryBulkResponse> recategorizeProfitEntries(@Valid @RequestBody EntryRecategorizeRequest request) {
+        Long userId = getAuthenticationUserId();
+        try {
+            return ResponseEntity.ok(entryBulkService.recategorize(userId, EntryKind.PROFIT, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /** Exclui, num único DELETE, os lançamentos que atendem ao filtro; exige ao menos um critério **/
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<EntryBulkResponse> deleteProfitEntries(@RequestBody EntryFilterRequest filter) {
+        Long userId = getAuthenticationUserId();
+        try {
+            return ResponseEntity.ok(entryBulkService.delete(userId, EntryKind.PROFIT, filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.controller;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.TokenVersionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/sessions")
+@RequiredArgsConstructor
+public class SessionController {
+
+    private final TokenVersionService tokenVersionService;
+
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            if (userDetails instanceof User user) {
+                return user.getId();
+            }
+        }
+        throw new IllegalStateException("User not authenticated or ID not available.");
+    }
+
+    /** Revoga todos os tokens do usuário, inclusive o desta requisição; é preciso fazer login de novo **/
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeAll() {
+        Long userId = getAuthenticatedUserId();
+        try {
+            tokenVersionService.revokeAll(userId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
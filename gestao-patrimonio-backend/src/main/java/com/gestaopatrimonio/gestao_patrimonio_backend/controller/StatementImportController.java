@@ -0,0 +1,70 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.controller;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.statement.StatementImportResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.service.StatementImportService;
+import com.gestaopatrimonio.gestao_patrimonio_backend.statement.StatementFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class StatementImportController {
+
+    private final StatementImportService statementImportService;
+
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            if (userDetails instanceof User user) {
+                return user.getId();
+            }
+        }
+        throw new IllegalStateException("User not authenticated or ID not available.");
+    }
+
+    /** Envia um extrato CSV/OFX; responde 202 com o job, acompanhado em GET /api/imports/{id} **/
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StatementImportResponse> importStatement(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) StatementFormat format,
+            @RequestParam(required = false) String charset,
+            @RequestParam(required = false) Long defaultExpenseCategoryId,
+            @RequestParam(required = false) Long defaultProfitCategoryId) throws IOException {
+        Long userId = getAuthenticatedUserId();
+        try {
+            StatementImportResponse job = statementImportService.submit(userId, file, format, charset,
+                    defaultExpenseCategoryId, defaultProfitCategoryId);
+            return ResponseEntity.accepted().location(URI.create("/api/imports/" + job.getId())).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /** Progresso enquanto roda; relatório final quando COMPLETED ou FAILED **/
+    @GetMapping("/{jobId}")
+    public ResponseEntity<StatementImportResponse> getImport(@PathVariable String jobId) {
+        Long userId = getAuthenticatedUserId();
+        return statementImportService.getJob(userId, jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
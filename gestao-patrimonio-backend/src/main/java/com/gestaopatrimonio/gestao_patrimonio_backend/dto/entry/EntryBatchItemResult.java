@@ -0,0 +1,17 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de um item do lote, na posição em que veio na requisição: id criado ou o erro.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntryBatchItemResult {
+    private int index;
+    private Long id;
+    private String error;
+}
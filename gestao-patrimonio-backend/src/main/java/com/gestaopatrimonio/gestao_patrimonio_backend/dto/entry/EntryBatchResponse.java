@@ -0,0 +1,16 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntryBatchResponse {
+    private int created;
+    private int failed;
+    private List<EntryBatchItemResult> items;
+}
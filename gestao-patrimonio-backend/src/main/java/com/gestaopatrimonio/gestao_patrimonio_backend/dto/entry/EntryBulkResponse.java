@@ -0,0 +1,12 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntryBulkResponse {
+    private int affected;
+}
@@ -0,0 +1,29 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filtros combináveis da listagem filtrada (query string); todos opcionais.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntryFilterRequest {
+    private List<Long> categoryIds;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private String q;
+    private String cursor;
+    private Integer size;
+}
@@ -0,0 +1,15 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntryPageResponse {
+    private List<EntryResponse> items;
+    private String next; // cursor opaco da próxima página; null na última
+}
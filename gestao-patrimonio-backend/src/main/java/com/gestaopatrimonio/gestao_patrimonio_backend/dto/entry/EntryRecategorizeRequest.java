@@ -0,0 +1,23 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Troca de categoria em massa: todos os lançamentos da categoria de origem ou, com filter, só os que o atendem.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntryRecategorizeRequest {
+    @NotNull(message = "The source category ID is necessarily.")
+    private Long fromCategoryId;
+
+    @NotNull(message = "The target category ID is necessarily.")
+    private Long toCategoryId;
+
+    // Opcional; categoryIds não se aplica (a categoria é fromCategoryId)
+    private EntryFilterRequest filter;
+}
@@ -18,4 +18,10 @@ public class EntryResponse {
     private BigDecimal amount;
     private LocalDate date;
     private CategoryResponse category;
+
+    /** Usado pelas consultas JPQL "SELECT new ...": uma linha com as colunas da categoria já no join **/
+    public EntryResponse(Long id, String description, BigDecimal amount, LocalDate date,
+                         Long categoryId, String categoryName, String categoryType) {
+        this(id, description, amount, date, new CategoryResponse(categoryId, categoryName, categoryType));
+    }
 }
\ No newline at end of file
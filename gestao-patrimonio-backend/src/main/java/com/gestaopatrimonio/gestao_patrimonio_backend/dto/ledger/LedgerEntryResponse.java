@@ -0,0 +1,22 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.ledger;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerEntryResponse {
+    private String kind; // PROFIT ou EXPENSE
+    private Long id;
+    private String description;
+    private BigDecimal amount;
+    private BigDecimal signedAmount; // positivo para lucro, negativo para gasto
+    private LocalDate date;
+    private CategoryResponse category;
+}
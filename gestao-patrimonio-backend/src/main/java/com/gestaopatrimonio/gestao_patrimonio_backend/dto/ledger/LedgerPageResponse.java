@@ -0,0 +1,15 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.ledger;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerPageResponse {
+    private List<LedgerEntryResponse> items;
+    private String next; // cursor opaco da próxima página; null na última
+}
@@ -0,0 +1,21 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.rule;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CategoryRuleRequest {
+    @NotBlank(message = "The rule pattern is necessarily.")
+    @Size(max = 100, message = "The rule pattern must have at most 100 characters.")
+    private String pattern;
+
+    @NotNull(message = "The Category ID is necessarily.")
+    private Long categoryId;
+
+    private EntryKind kind; // opcional: restringe a regra a lucros ou gastos
+
+    private Integer priority; // menor primeiro; padrão 100
+}
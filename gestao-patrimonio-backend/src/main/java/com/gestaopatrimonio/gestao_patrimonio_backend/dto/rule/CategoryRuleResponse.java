@@ -0,0 +1,16 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.rule;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryRuleResponse {
+    private Long id;
+    private String pattern;
+    private Long categoryId;
+    private String kind;
+    private int priority;
+}
@@ -0,0 +1,15 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.search;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntrySearchResultResponse {
+    private String kind; // PROFIT ou EXPENSE
+    private int score;   // 2 por termo da busca igual a um termo da descrição, 1 por termo que só casa como prefixo
+    private EntryResponse entry;
+}
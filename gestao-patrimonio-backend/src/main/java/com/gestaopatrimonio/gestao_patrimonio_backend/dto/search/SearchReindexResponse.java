@@ -0,0 +1,13 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchReindexResponse {
+    private long indexedEntries;
+    private long indexedTerms;
+}
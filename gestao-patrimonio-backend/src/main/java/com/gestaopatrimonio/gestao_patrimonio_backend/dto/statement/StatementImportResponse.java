@@ -0,0 +1,33 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.statement;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progresso (enquanto RUNNING) e relatório final (COMPLETED/FAILED) de uma importação de extrato.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatementImportResponse {
+    private String id;
+    private String status;
+    private String format;
+    private String fileName;
+    private long totalBytes;
+    private long bytesRead;
+    private int progressPercent;
+    private long linesRead;
+    private long imported;
+    private long duplicates;
+    private long uncategorized;
+    private long failed;
+    private List<String> errors; // amostra limitada, com a posição da linha no arquivo
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryTotalDriftResponse {
+    private Long categoryId;
+    private String kind; // PROFIT ou EXPENSE
+    private BigDecimal expectedTotal;
+    private BigDecimal storedTotal;
+    private long expectedCount;
+    private long storedCount;
+}
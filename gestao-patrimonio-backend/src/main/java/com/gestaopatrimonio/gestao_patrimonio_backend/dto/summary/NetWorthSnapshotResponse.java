@@ -0,0 +1,18 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NetWorthSnapshotResponse {
+    private LocalDate date;
+    private BigDecimal profits;  // lucros do dia
+    private BigDecimal expenses; // gastos do dia
+    private BigDecimal netWorth; // patrimônio acumulado ao fim do dia
+}
@@ -0,0 +1,21 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimeSeriesBucketResponse {
+    private String period; // yyyy-MM ou yyyy
+    private BigDecimal totalProfits;
+    private BigDecimal totalExpenses;
+    private BigDecimal net;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CategorySummaryResponse> byCategory; // só quando splitByCategory=true
+}
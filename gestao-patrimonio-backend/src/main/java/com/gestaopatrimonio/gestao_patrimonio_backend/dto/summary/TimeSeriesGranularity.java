@@ -0,0 +1,6 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary;
+
+public enum TimeSeriesGranularity {
+    MONTH,
+    YEAR
+}
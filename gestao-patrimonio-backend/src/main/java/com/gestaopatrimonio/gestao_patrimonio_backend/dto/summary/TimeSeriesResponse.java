@@ -0,0 +1,15 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimeSeriesResponse {
+    private String granularity;
+    private List<TimeSeriesBucketResponse> buckets;
+}
@@ -0,0 +1,16 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TotalsReconciliationResponse {
+    private long scannedEntries;
+    private boolean repaired;
+    private List<CategoryTotalDriftResponse> drifts;
+}
@@ -0,0 +1,15 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.event;
+
+import java.time.LocalDate;
+
+/**
+ * Publicado pelos serviços de lançamento e de categoria sempre que os dados financeiros de um usuário mudam.
+ * {@code affectedFrom} é a data mais antiga de lançamento afetada pela escrita, ou null quando nenhum
+ * lançamento mudou (ex.: renomear uma categoria).
+ */
+public record FinancialDataChangedEvent(Long userId, LocalDate affectedFrom) {
+
+    public FinancialDataChangedEvent(Long userId) {
+        this(userId, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.event;
+
+/**
+ * Publicado quando a versão de token de um usuário é incrementada: todos os JWTs emitidos antes deixam de valer.
+ */
+public record TokensRevokedEvent(Long userId) {
+}
@@ -0,0 +1,20 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Lançada quando um recurso limitado (pool de threads, prazo de consulta) não consegue atender a tempo;
+ * o Spring responde 503 em vez de deixar a requisição esperando.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
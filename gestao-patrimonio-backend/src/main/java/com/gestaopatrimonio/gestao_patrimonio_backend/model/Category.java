@@ -1,8 +1,8 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.model;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -28,15 +28,18 @@ public class Category {
     @Column(nullable = false)
     private String type;
 
-    @ManyToOne
+    // LAZY: ler categorias não carrega o usuário; getUser().getId() vem do proxy, sem SELECT
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Sem cascade/orphanRemoval: a exclusão da categoria apaga os lançamentos com um DELETE por tabela
+    // (CategoryService.deleteCategory), em vez de carregar cada um e removê-lo linha a linha
+    @OneToMany(mappedBy = "category")
     private List<ProfitEntry> profitEntries = new ArrayList<>();
 
 
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "category")
     private List<ExpenseEntry> expenseEntries = new ArrayList<>();
 
     public Category() {
@@ -0,0 +1,99 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.model;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Regra do usuário para categorizar linhas importadas: descrição (normalizada) contém {@code pattern}.
+ * Regras são avaliadas por prioridade crescente; a primeira que casar define a categoria.
+ */
+@Entity
+@Table(name = "category_rules", indexes = {
+        @Index(name = "idx_category_rules_user_priority", columnList = "user_id, priority, id"),
+        @Index(name = "idx_category_rules_category", columnList = "category_id")
+})
+public class CategoryRule {
+
+    public static final int MAX_PATTERN_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    // null: vale para lucros e gastos
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private EntryKind kind;
+
+    @Column(nullable = false, length = MAX_PATTERN_LENGTH)
+    private String pattern;
+
+    @Column(nullable = false)
+    private int priority;
+
+    public CategoryRule() {
+    }
+
+    public CategoryRule(Long userId, Long categoryId, EntryKind kind, String pattern, int priority) {
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.kind = kind;
+        this.pattern = pattern;
+        this.priority = priority;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public EntryKind getKind() {
+        return kind;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CategoryRule that = (CategoryRule) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryRule{" +
+                "id=" + id +
+                ", categoryId=" + categoryId +
+                ", kind=" + kind +
+                ", pattern='" + pattern + '\'' +
+                ", priority=" + priority +
+                '}';
+    }
+}
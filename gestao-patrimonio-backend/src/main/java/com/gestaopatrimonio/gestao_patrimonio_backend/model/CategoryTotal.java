@@ -0,0 +1,103 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Total acumulado por (usuário, categoria, tipo de lançamento), mantido pelos serviços de lançamento
+ * na mesma transação da escrita.
+ */
+@Entity
+@Table(name = "category_totals",
+        uniqueConstraints = @UniqueConstraint(name = "uk_category_totals_user_category_kind", columnNames = {"user_id", "category_id", "kind"}))
+public class CategoryTotal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EntryKind kind;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    public CategoryTotal() {
+    }
+
+    public CategoryTotal(Long userId, Long categoryId, EntryKind kind, BigDecimal total, long entryCount) {
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.kind = kind;
+        this.total = total;
+        this.entryCount = entryCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public EntryKind getKind() {
+        return kind;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CategoryTotal that = (CategoryTotal) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryTotal{" +
+                "userId=" + userId +
+                ", categoryId=" + categoryId +
+                ", kind=" + kind +
+                ", total=" + total +
+                ", entryCount=" + entryCount +
+                '}';
+    }
+}
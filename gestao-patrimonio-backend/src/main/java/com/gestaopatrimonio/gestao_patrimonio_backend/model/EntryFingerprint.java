@@ -0,0 +1,36 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * SHA-256 de (data, valor, descrição normalizada): identifica a mesma linha de extrato importada de novo
+ * com uma comparação de igualdade indexada, sem comparar texto livre.
+ */
+public final class EntryFingerprint {
+
+    public static final int LENGTH = 64;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private EntryFingerprint() {
+    }
+
+    public static String of(LocalDate date, BigDecimal amount, String description) {
+        String normalizedDescription = WHITESPACE.matcher(description.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        String canonical = date + "|" + amount.setScale(2, RoundingMode.HALF_UP).toPlainString() + "|" + normalizedDescription;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.model;
+
+public enum EntryKind {
+    PROFIT,
+    EXPENSE
+}
@@ -0,0 +1,99 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.model;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Índice invertido das descrições: um termo normalizado por linha, apontando para o lançamento.
+ * Mantido pelos serviços de lançamento na mesma transação da escrita.
+ */
+@Entity
+@Table(name = "entry_search_terms", indexes = {
+        @Index(name = "idx_entry_search_terms_user_term", columnList = "user_id, term, kind, entry_id"),
+        @Index(name = "idx_entry_search_terms_entry", columnList = "kind, entry_id"),
+        @Index(name = "idx_entry_search_terms_category", columnList = "category_id")
+})
+public class EntrySearchTerm {
+
+    public static final int MAX_TERM_LENGTH = 64;
+
+    // Sequence com pool de 50 ids: IDENTITY obriga um INSERT imediato por linha e desliga o batch JDBC do Hibernate
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entry_search_terms_seq")
+    @SequenceGenerator(name = "entry_search_terms_seq", sequenceName = "entry_search_terms_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EntryKind kind;
+
+    @Column(name = "entry_id", nullable = false)
+    private Long entryId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false, length = MAX_TERM_LENGTH)
+    private String term;
+
+    public EntrySearchTerm() {
+    }
+
+    public EntrySearchTerm(Long userId, EntryKind kind, Long entryId, Long categoryId, String term) {
+        this.userId = userId;
+        this.kind = kind;
+        this.entryId = entryId;
+        this.categoryId = categoryId;
+        this.term = term;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public EntryKind getKind() {
+        return kind;
+    }
+
+    public Long getEntryId() {
+        return entryId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EntrySearchTerm that = (EntrySearchTerm) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "EntrySearchTerm{" +
+                "kind=" + kind +
+                ", entryId=" + entryId +
+                ", term='" + term + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,121 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Total mensal pré-agregado por (usuário, categoria, tipo, mês). monthKey é yyyyMM e yearKey é yyyy,
+ * para que as séries mensais e anuais sejam apenas GROUP BY sobre esta tabela.
+ */
+@Entity
+@Table(name = "monthly_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_monthly_rollups_user_category_kind_month", columnNames = {"user_id", "category_id", "kind", "month_key"}),
+        indexes = @Index(name = "idx_monthly_rollups_user_month", columnList = "user_id, month_key"))
+public class MonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EntryKind kind;
+
+    @Column(name = "month_key", nullable = false)
+    private int monthKey;
+
+    @Column(name = "year_key", nullable = false)
+    private int yearKey;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    public MonthlyRollup() {
+    }
+
+    public MonthlyRollup(Long userId, Long categoryId, EntryKind kind, int monthKey, BigDecimal total, long entryCount) {
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.kind = kind;
+        this.monthKey = monthKey;
+        this.yearKey = monthKey / 100;
+        this.total = total;
+        this.entryCount = entryCount;
+    }
+
+    public static int monthKeyOf(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    public static LocalDate firstDayOf(int monthKey) {
+        return LocalDate.of(monthKey / 100, monthKey % 100, 1);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public EntryKind getKind() {
+        return kind;
+    }
+
+    public int getMonthKey() {
+        return monthKey;
+    }
+
+    public int getYearKey() {
+        return yearKey;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MonthlyRollup that = (MonthlyRollup) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "MonthlyRollup{" +
+                "userId=" + userId +
+                ", categoryId=" + categoryId +
+                ", kind=" + kind +
+                ", monthKey=" + monthKey +
+                ", total=" + total +
+                '}';
+    }
+}
@@ -0,0 +1,95 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Patrimônio de um usuário ao fim de um dia: netWorth é o snapshot do dia anterior mais os lucros
+ * e menos os gastos do próprio dia. Um por dia, do primeiro lançamento até hoje.
+ */
+@Entity
+@Table(name = "net_worth_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_net_worth_snapshots_user_date", columnNames = {"user_id", "snapshot_date"}))
+public class NetWorthSnapshot {
+
+    // Sequence com pool de 50 ids: o recálculo grava um snapshot por dia, e IDENTITY desligaria o batch JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "net_worth_snapshots_seq")
+    @SequenceGenerator(name = "net_worth_snapshots_seq", sequenceName = "net_worth_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "day_profits", nullable = false, precision = 19, scale = 2)
+    private BigDecimal dayProfits;
+
+    @Column(name = "day_expenses", nullable = false, precision = 19, scale = 2)
+    private BigDecimal dayExpenses;
+
+    @Column(name = "net_worth", nullable = false, precision = 19, scale = 2)
+    private BigDecimal netWorth;
+
+    public NetWorthSnapshot() {
+    }
+
+    public NetWorthSnapshot(Long userId, LocalDate snapshotDate, BigDecimal dayProfits, BigDecimal dayExpenses, BigDecimal netWorth) {
+        this.userId = userId;
+        this.snapshotDate = snapshotDate;
+        this.dayProfits = dayProfits;
+        this.dayExpenses = dayExpenses;
+        this.netWorth = netWorth;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public BigDecimal getDayProfits() {
+        return dayProfits;
+    }
+
+    public BigDecimal getDayExpenses() {
+        return dayExpenses;
+    }
+
+    public BigDecimal getNetWorth() {
+        return netWorth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NetWorthSnapshot that = (NetWorthSnapshot) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "NetWorthSnapshot{" +
+                "userId=" + userId +
+                ", snapshotDate=" + snapshotDate +
+                ", netWorth=" + netWorth +
+                '}';
+    }
+}
@@ -8,11 +8,18 @@ import java.time.*;
 import java.util.Objects;
 
 @Entity
-@Table(name = "profit_entries")
+@Table(name = "profit_entries", indexes = {
+        @Index(name = "idx_profit_entries_user_date_id", columnList = "user_id, date, id"),
+        @Index(name = "idx_profit_entries_user_category_date_id", columnList = "user_id, category_id, date, id"),
+        @Index(name = "idx_profit_entries_user_amount_id", columnList = "user_id, amount, id"),
+        @Index(name = "idx_profit_entries_user_fingerprint", columnList = "user_id, fingerprint")
+})
 public class ProfitEntry {
 
+    // Sequence com pool de 50 ids: IDENTITY obriga um INSERT imediato por linha e desliga o batch JDBC do Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profit_entries_seq")
+    @SequenceGenerator(name = "profit_entries_seq", sequenceName = "profit_entries_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -24,11 +31,15 @@ public class ProfitEntry {
     @Column(nullable = false)
     private LocalDate date;
 
-    @ManyToOne
+    // Hash de (data, valor, descrição) para deduplicar importações de extrato; recalculado a cada escrita
+    @Column(length = EntryFingerprint.LENGTH)
+    private String fingerprint;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
@@ -75,6 +86,16 @@ public class ProfitEntry {
         this.date = date;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void refreshFingerprint() {
+        this.fingerprint = EntryFingerprint.of(date, amount, description);
+    }
+
     public User getUser() {
         return user;
     }
@@ -6,10 +6,12 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority; // NOVO IMPORT
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -28,6 +30,20 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String password;
 
+    /** Incrementada a cada escrita em lançamentos ou categorias; só é alterada via UserRepository.bumpDataVersion **/
+    @ColumnDefault("0")
+    @Column(name = "data_version", nullable = false, updatable = false)
+    private long dataVersion;
+
+    /** Versão dos JWTs do usuário (claim "ver"); incrementar revoga os tokens anteriores. Só é alterada via UserRepository.bumpTokenVersion **/
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false, updatable = false)
+    private long tokenVersion;
+
+    /** Data a partir da qual os snapshots diários de patrimônio precisam ser recalculados (null = em dia) **/
+    @Column(name = "snapshots_dirty_from", insertable = false, updatable = false)
+    private LocalDate snapshotsDirtyFrom;
+
     public User() {
     }
 
@@ -36,6 +52,21 @@ public class User implements UserDetails {
         this.password = password;
     }
 
+    /** Principal montado só com as claims de um JWT verificado: sem senha e fora do contexto de persistência **/
+    public static User authenticated(Long id, String username) {
+        User user = new User(username, null);
+        user.setId(id);
+        return user;
+    }
+
+    /** Instância destacada a partir de um {@link UserSnapshot} em cache; nunca deve ser salva **/
+    static User detached(Long id, String username, String password, long tokenVersion) {
+        User user = new User(username, password);
+        user.setId(id);
+        user.tokenVersion = tokenVersion;
+        return user;
+    }
+
     public Long getId() {
         return id;
     }
@@ -60,6 +91,18 @@ public class User implements UserDetails {
         this.password = password;
     }
 
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public LocalDate getSnapshotsDirtyFrom() {
+        return snapshotsDirtyFrom;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_USER"));
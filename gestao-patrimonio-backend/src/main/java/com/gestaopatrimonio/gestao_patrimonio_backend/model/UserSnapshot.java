@@ -0,0 +1,22 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.model;
+
+/**
+ * Cópia imutável das colunas de {@link User} usadas na autenticação, segura para ficar em cache entre
+ * requisições. Cada {@link #toUser()} devolve uma instância nova, destacada do contexto de persistência.
+ */
+public record UserSnapshot(Long id, String username, String passwordHash, long tokenVersion) {
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getPassword(), user.getTokenVersion());
+    }
+
+    public User toUser() {
+        return User.detached(id, username, passwordHash, tokenVersion);
+    }
+
+    @Override
+    public String toString() {
+        // Sem o hash da senha: o snapshot aparece em logs de depuração do cache
+        return "UserSnapshot{id=" + id + ", username='" + username + "', tokenVersion=" + tokenVersion + '}';
+    }
+}
@@ -1,15 +1,30 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.repository;
 
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
-import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-    Optional<Category> findByNameAndUser(String name, User user);
+    /** Busca já restrita ao dono: categoria de outro usuário é indistinguível de inexistente **/
+    @Query("SELECT c FROM Category c WHERE c.id = :id AND c.user.id = :userId")
+    Optional<Category> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
-    List<Category> findByUserOrderByNameAsc(User user);
+    @Query("SELECT COUNT(c) > 0 FROM Category c WHERE c.id = :id AND c.user.id = :userId")
+    boolean existsByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT c FROM Category c WHERE c.user.id = :userId AND c.name = :name")
+    Optional<Category> findByNameAndUserId(@Param("name") String name, @Param("userId") Long userId);
+
+    @Query("SELECT c FROM Category c WHERE c.user.id = :userId ORDER BY c.name ASC")
+    List<Category> findByUserIdOrderByNameAsc(@Param("userId") Long userId);
+
+    /** Dos ids informados, os que pertencem ao usuário: uma consulta por lote, não uma por lançamento **/
+    @Query("SELECT c.id FROM Category c WHERE c.user.id = :userId AND c.id IN :ids")
+    List<Long> findIdsByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.CategoryRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CategoryRuleRepository extends JpaRepository<CategoryRule, Long> {
+
+    List<CategoryRule> findByUserIdOrderByPriorityAscIdAsc(Long userId);
+
+    Optional<CategoryRule> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM CategoryRule r WHERE r.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+}
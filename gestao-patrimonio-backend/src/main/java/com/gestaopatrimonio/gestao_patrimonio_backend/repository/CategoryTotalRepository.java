@@ -0,0 +1,36 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.CategoryTotal;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.CategoryTotalProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface CategoryTotalRepository extends JpaRepository<CategoryTotal, Long> {
+
+    List<CategoryTotal> findByUserId(Long userId);
+
+    @Query("SELECT t.categoryId AS categoryId, c.name AS categoryName, c.type AS categoryType, t.total AS totalAmount " +
+            "FROM CategoryTotal t JOIN Category c ON c.id = t.categoryId " +
+            "WHERE t.userId = :userId AND t.kind = :kind AND t.entryCount > 0 " +
+            "ORDER BY c.name")
+    List<CategoryTotalProjection> findSummaryByUserIdAndKind(@Param("userId") Long userId, @Param("kind") EntryKind kind);
+
+    @Modifying
+    @Query("UPDATE CategoryTotal t SET t.total = t.total + :amount, t.entryCount = t.entryCount + :count " +
+            "WHERE t.userId = :userId AND t.categoryId = :categoryId AND t.kind = :kind")
+    int addToTotal(@Param("userId") Long userId,
+                   @Param("categoryId") Long categoryId,
+                   @Param("kind") EntryKind kind,
+                   @Param("amount") BigDecimal amount,
+                   @Param("count") long count);
+
+    @Modifying
+    @Query("DELETE FROM CategoryTotal t WHERE t.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+}
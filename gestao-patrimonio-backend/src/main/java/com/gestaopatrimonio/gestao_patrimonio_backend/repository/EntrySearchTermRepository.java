@@ -0,0 +1,34 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntrySearchTerm;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.SearchTermMatchProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EntrySearchTermRepository extends JpaRepository<EntrySearchTerm, Long> {
+
+    // Prefixo como intervalo [lo, hi): range scan no índice (user_id, term, ...), sem LIKE
+    @Query("SELECT t.kind AS kind, t.entryId AS entryId, t.term AS term " +
+            "FROM EntrySearchTerm t " +
+            "WHERE t.userId = :userId AND t.term >= :lo AND t.term < :hi " +
+            "ORDER BY t.term")
+    List<SearchTermMatchProjection> findPrefixMatches(@Param("userId") Long userId, @Param("lo") String lo, @Param("hi") String hi, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EntrySearchTerm t WHERE t.kind = :kind AND t.entryId = :entryId")
+    int deleteByEntry(@Param("kind") EntryKind kind, @Param("entryId") Long entryId);
+
+    @Modifying
+    @Query("DELETE FROM EntrySearchTerm t WHERE t.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("DELETE FROM EntrySearchTerm t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
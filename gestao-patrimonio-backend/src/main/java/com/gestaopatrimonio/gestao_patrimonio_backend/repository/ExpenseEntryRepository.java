@@ -1,12 +1,160 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.repository;
 
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
-import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
-import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category; // NOVO IMPORT
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.CategoryTotalProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.DailyAmountProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.EntryDescriptionProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.EntryAggregateProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.EntryAmountProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.FingerprintCountProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.UnindexedEntryProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ExpenseEntryRepository extends JpaRepository<ExpenseEntry, Long> {
-    List<ExpenseEntry> findByUserOrderByDateDesc(User user);
-    List<ExpenseEntry> findByUserAndCategoryOrderByDateDesc(User user, Category category);
-}
\ No newline at end of file
+public interface ExpenseEntryRepository extends JpaRepository<ExpenseEntry, Long>, JpaSpecificationExecutor<ExpenseEntry> {
+
+    // Listagens selecionam direto no DTO com a categoria no join: nenhuma entidade é hidratada nem entra no dirty-checking
+    String SELECT_RESPONSE = "SELECT new com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse(" +
+            "e.id, e.description, e.amount, e.date, c.id, c.name, c.type) " +
+            "FROM ExpenseEntry e JOIN e.category c ";
+
+    @Query(SELECT_RESPONSE +
+            "WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<EntryResponse> findResponsesByUser(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(SELECT_RESPONSE +
+            "WHERE e.user.id = :userId AND c.id = :categoryId AND e.date BETWEEN :from AND :to " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<EntryResponse> findResponsesByUserAndCategory(@Param("userId") Long userId, @Param("categoryId") Long categoryId,
+                                                       @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(SELECT_RESPONSE + "WHERE e.id = :id AND e.user.id = :userId")
+    Optional<EntryResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query(SELECT_RESPONSE + "WHERE e.user.id = :userId AND e.id IN :ids")
+    List<EntryResponse> findResponsesByUserAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /** Para escritas que devolvem a entidade: um SELECT já restrito ao dono, com a categoria no mesmo join **/
+    @Query("SELECT e FROM ExpenseEntry e JOIN FETCH e.category WHERE e.id = :id AND e.user.id = :userId")
+    Optional<ExpenseEntry> findWithCategoryByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /** Exclusão: categoria e usuário ficam como proxies; só os ids são lidos **/
+    @Query("SELECT e FROM ExpenseEntry e WHERE e.id = :id AND e.user.id = :userId")
+    Optional<ExpenseEntry> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT c.id AS categoryId, c.name AS categoryName, c.type AS categoryType, SUM(e.amount) AS totalAmount " +
+            "FROM ExpenseEntry e JOIN e.category c " +
+            "WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to " +
+            "GROUP BY c.id, c.name, c.type " +
+            "ORDER BY c.name")
+    List<CategoryTotalProjection> sumAmountByCategoryForUserBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT e.id AS id, e.category.id AS categoryId, e.amount AS amount, e.date AS date " +
+            "FROM ExpenseEntry e " +
+            "WHERE e.user.id = :userId AND e.id > :afterId " +
+            "ORDER BY e.id")
+    List<EntryAmountProjection> findAmountChunk(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Semente de uma linha de category_totals que ainda não existe (categoria anterior à tabela) **/
+    @Query("SELECT COALESCE(SUM(e.amount), 0) AS totalAmount, COUNT(e) AS entryCount " +
+            "FROM ExpenseEntry e WHERE e.user.id = :userId AND e.category.id = :categoryId")
+    EntryAggregateProjection aggregateByUserAndCategory(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    /** Semente de uma linha de monthly_rollups que ainda não existe: lançamentos da categoria no mês [from, to) **/
+    @Query("SELECT COALESCE(SUM(e.amount), 0) AS totalAmount, COUNT(e) AS entryCount " +
+            "FROM ExpenseEntry e WHERE e.user.id = :userId AND e.category.id = :categoryId AND e.date >= :from AND e.date < :to")
+    EntryAggregateProjection aggregateByUserAndCategoryBetween(@Param("userId") Long userId, @Param("categoryId") Long categoryId,
+                                                               @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT e.id AS id, e.category.id AS categoryId, e.description AS description " +
+            "FROM ExpenseEntry e " +
+            "WHERE e.user.id = :userId AND e.id > :afterId " +
+            "ORDER BY e.id")
+    List<EntryDescriptionProjection> findDescriptionChunk(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Lançamentos sem nenhum termo no índice de busca (gravados antes dele), de todos os usuários, em blocos por id **/
+    @Query("SELECT e.id AS id, e.user.id AS userId, e.category.id AS categoryId, e.description AS description " +
+            "FROM ExpenseEntry e " +
+            "WHERE e.id > :afterId AND NOT EXISTS (SELECT t.id FROM EntrySearchTerm t WHERE t.kind = :kind AND t.entryId = e.id) " +
+            "ORDER BY e.id")
+    List<UnindexedEntryProjection> findUnindexedChunk(@Param("kind") EntryKind kind, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Das impressões digitais informadas, quantos lançamentos o usuário já tem com cada uma: deduplicação da importação de extratos **/
+    @Query("SELECT e.fingerprint AS fingerprint, COUNT(e) AS entryCount FROM ExpenseEntry e " +
+            "WHERE e.user.id = :userId AND e.fingerprint IN :fingerprints GROUP BY e.fingerprint")
+    List<FingerprintCountProjection> countFingerprintsByUserIn(@Param("userId") Long userId, @Param("fingerprints") Collection<String> fingerprints);
+
+    /** Lançamentos anteriores à coluna fingerprint, em blocos por id, para preenchê-la **/
+    @Query("SELECT e FROM ExpenseEntry e WHERE e.user.id = :userId AND e.fingerprint IS NULL AND e.id > :afterId ORDER BY e.id")
+    List<ExpenseEntry> findWithoutFingerprintChunk(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Exclusão da categoria: um DELETE só, sem carregar os lançamentos no contexto de persistência **/
+    @Modifying
+    @Query("DELETE FROM ExpenseEntry e WHERE e.category.id = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT e.date AS date, SUM(e.amount) AS totalAmount " +
+            "FROM ExpenseEntry e " +
+            "WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to " +
+            "GROUP BY e.date " +
+            "ORDER BY e.date")
+    List<DailyAmountProjection> sumAmountByDateForUserBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT MIN(e.date) FROM ExpenseEntry e WHERE e.user.id = :userId")
+    Optional<LocalDate> findFirstDateByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT MIN(e.date) FROM ExpenseEntry e WHERE e.user.id = :userId AND e.category.id = :categoryId")
+    Optional<LocalDate> findFirstDateByUserIdAndCategoryId(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    // Keyset: continua depois de (cursorDate, cursorId) na ordem (date DESC, id DESC), servido pelo índice (user_id, date, id).
+    // O date <= :cursorDate é o limite superior do range scan; sem ele a página N percorre todas as anteriores
+    @Query(SELECT_RESPONSE +
+            "WHERE e.user.id = :userId AND e.date >= :from " +
+            "AND e.date <= :cursorDate AND (e.date < :cursorDate OR e.id < :cursorId) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<EntryResponse> findPageByUser(@Param("userId") Long userId,
+                                       @Param("from") LocalDate from,
+                                       @Param("cursorDate") LocalDate cursorDate,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    @Query(SELECT_RESPONSE +
+            "WHERE e.user.id = :userId AND c.id = :categoryId AND e.date >= :from " +
+            "AND e.date <= :cursorDate AND (e.date < :cursorDate OR e.id < :cursorId) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    List<EntryResponse> findPageByUserAndCategory(@Param("userId") Long userId,
+                                                  @Param("categoryId") Long categoryId,
+                                                  @Param("from") LocalDate from,
+                                                  @Param("cursorDate") LocalDate cursorDate,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Pageable pageable);
+
+    // Cursor somente para frente: as linhas chegam do driver em blocos de fetch size e viram DTO sem passar pelo contexto de persistência
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE +
+            "WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to " +
+            "ORDER BY e.date DESC, e.id DESC")
+    Stream<EntryResponse> streamByUser(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE +
+            "WHERE e.user.id = :userId AND c.id = :categoryId AND e.date BETWEEN :from AND :to " +
+            "ORDER BY e.date DESC, e.id DESC")
+    Stream<EntryResponse> streamByUserAndCategory(@Param("userId") Long userId, @Param("categoryId") Long categoryId,
+                                                  @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
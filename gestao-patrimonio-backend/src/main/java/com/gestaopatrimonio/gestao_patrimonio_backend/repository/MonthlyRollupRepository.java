@@ -0,0 +1,47 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.MonthlyRollup;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.RollupBucketProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    @Query("SELECT r.monthKey AS bucket, r.kind AS kind, r.categoryId AS categoryId, c.name AS categoryName, c.type AS categoryType, SUM(r.total) AS totalAmount " +
+            "FROM MonthlyRollup r JOIN Category c ON c.id = r.categoryId " +
+            "WHERE r.userId = :userId AND r.monthKey BETWEEN :fromMonth AND :toMonth AND r.entryCount > 0 " +
+            "GROUP BY r.monthKey, r.kind, r.categoryId, c.name, c.type " +
+            "ORDER BY r.monthKey")
+    List<RollupBucketProjection> sumByMonth(@Param("userId") Long userId, @Param("fromMonth") int fromMonth, @Param("toMonth") int toMonth);
+
+    @Query("SELECT r.yearKey AS bucket, r.kind AS kind, r.categoryId AS categoryId, c.name AS categoryName, c.type AS categoryType, SUM(r.total) AS totalAmount " +
+            "FROM MonthlyRollup r JOIN Category c ON c.id = r.categoryId " +
+            "WHERE r.userId = :userId AND r.monthKey BETWEEN :fromMonth AND :toMonth AND r.entryCount > 0 " +
+            "GROUP BY r.yearKey, r.kind, r.categoryId, c.name, c.type " +
+            "ORDER BY r.yearKey")
+    List<RollupBucketProjection> sumByYear(@Param("userId") Long userId, @Param("fromMonth") int fromMonth, @Param("toMonth") int toMonth);
+
+    @Modifying
+    @Query("UPDATE MonthlyRollup r SET r.total = r.total + :amount, r.entryCount = r.entryCount + :count " +
+            "WHERE r.userId = :userId AND r.categoryId = :categoryId AND r.kind = :kind AND r.monthKey = :monthKey")
+    int addToRollup(@Param("userId") Long userId,
+                    @Param("categoryId") Long categoryId,
+                    @Param("kind") EntryKind kind,
+                    @Param("monthKey") int monthKey,
+                    @Param("amount") BigDecimal amount,
+                    @Param("count") long count);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
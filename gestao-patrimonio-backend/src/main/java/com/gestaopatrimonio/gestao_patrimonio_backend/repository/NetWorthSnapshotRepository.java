@@ -0,0 +1,24 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.NetWorthSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface NetWorthSnapshotRepository extends JpaRepository<NetWorthSnapshot, Long> {
+
+    List<NetWorthSnapshot> findByUserIdAndSnapshotDateBetweenOrderBySnapshotDate(Long userId, LocalDate from, LocalDate to);
+
+    Optional<NetWorthSnapshot> findTopByUserIdOrderBySnapshotDateDesc(Long userId);
+
+    Optional<NetWorthSnapshot> findTopByUserIdAndSnapshotDateBeforeOrderBySnapshotDateDesc(Long userId, LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM NetWorthSnapshot s WHERE s.userId = :userId AND s.snapshotDate >= :from")
+    int deleteFrom(@Param("userId") Long userId, @Param("from") LocalDate from);
+}
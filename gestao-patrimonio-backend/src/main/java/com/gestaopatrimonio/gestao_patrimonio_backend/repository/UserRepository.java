@@ -1,11 +1,61 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.repository;
 
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
+
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("SELECT u.dataVersion FROM User u WHERE u.id = :userId")
+    Optional<Long> findDataVersionById(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.dataVersion = u.dataVersion + 1 WHERE u.id = :userId")
+    int bumpDataVersion(@Param("userId") Long userId);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :userId")
+    Optional<Long> findTokenVersionById(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :userId")
+    int bumpTokenVersion(@Param("userId") Long userId);
+
+    /** Rehash no login: só troca se o hash ainda for o verificado, para não sobrescrever uma troca de senha concorrente **/
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :userId AND u.password = :currentHash")
+    int replacePasswordHash(@Param("userId") Long userId, @Param("currentHash") String currentHash, @Param("newHash") String newHash);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :userId")
+    Optional<User> findByIdForUpdate(@Param("userId") Long userId);
+
+    @Query("SELECT u.snapshotsDirtyFrom FROM User u WHERE u.id = :userId")
+    Optional<LocalDate> findSnapshotsDirtyFromById(@Param("userId") Long userId);
+
+    /** Guarda a menor data afetada ainda não recalculada **/
+    @Modifying
+    @Query("UPDATE User u SET u.snapshotsDirtyFrom = :date " +
+            "WHERE u.id = :userId AND (u.snapshotsDirtyFrom IS NULL OR u.snapshotsDirtyFrom > :date)")
+    int markSnapshotsDirtyFrom(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    @Modifying
+    @Query("UPDATE User u SET u.snapshotsDirtyFrom = NULL WHERE u.id = :userId")
+    int clearSnapshotsDirtyFrom(@Param("userId") Long userId);
 }
@@ -0,0 +1,13 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha agregada (SUM por categoria) devolvida direto pelo banco, sem hidratar entidades.
+ */
+public interface CategoryTotalProjection {
+    Long getCategoryId();
+    String getCategoryName();
+    String getCategoryType();
+    BigDecimal getTotalAmount();
+}
@@ -0,0 +1,12 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Soma dos lançamentos de um usuário em um dia.
+ */
+public interface DailyAmountProjection {
+    LocalDate getDate();
+    BigDecimal getTotalAmount();
+}
@@ -0,0 +1,11 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Soma e quantidade de lançamentos de um recorte (usuário, categoria e, opcionalmente, período).
+ */
+public interface EntryAggregateProjection {
+    BigDecimal getTotalAmount();
+    Long getEntryCount();
+}
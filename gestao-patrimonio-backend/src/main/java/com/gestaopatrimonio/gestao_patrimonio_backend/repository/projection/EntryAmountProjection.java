@@ -0,0 +1,14 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Colunas mínimas de um lançamento para recalcular agregados em blocos.
+ */
+public interface EntryAmountProjection {
+    Long getId();
+    Long getCategoryId();
+    BigDecimal getAmount();
+    LocalDate getDate();
+}
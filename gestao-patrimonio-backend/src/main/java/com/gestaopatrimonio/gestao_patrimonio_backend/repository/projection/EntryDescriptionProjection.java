@@ -0,0 +1,10 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+/**
+ * Colunas de um lançamento necessárias para reconstruir o índice de busca.
+ */
+public interface EntryDescriptionProjection {
+    Long getId();
+    Long getCategoryId();
+    String getDescription();
+}
@@ -0,0 +1,9 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+/**
+ * Quantos lançamentos do usuário têm um mesmo fingerprint (data, valor, descrição).
+ */
+public interface FingerprintCountProjection {
+    String getFingerprint();
+    Long getEntryCount();
+}
@@ -0,0 +1,17 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+
+import java.math.BigDecimal;
+
+/**
+ * Total de um balde da série temporal (yyyyMM ou yyyy) por tipo e categoria.
+ */
+public interface RollupBucketProjection {
+    Integer getBucket();
+    EntryKind getKind();
+    Long getCategoryId();
+    String getCategoryName();
+    String getCategoryType();
+    BigDecimal getTotalAmount();
+}
@@ -0,0 +1,12 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+
+/**
+ * Uma ocorrência de termo no índice invertido, lida só do índice (user_id, term, kind, entry_id).
+ */
+public interface SearchTermMatchProjection {
+    EntryKind getKind();
+    Long getEntryId();
+    String getTerm();
+}
@@ -0,0 +1,8 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection;
+
+/**
+ * Lançamento ainda sem termos no índice de busca, com o dono: o backfill percorre todos os usuários de uma vez.
+ */
+public interface UnindexedEntryProjection extends EntryDescriptionProjection {
+    Long getUserId();
+}
@@ -1,57 +1,145 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.service;
 
 
+import com.gestaopatrimonio.gestao_patrimonio_backend.exception.ServiceUnavailableException;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.UserSnapshot;
 import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
-
-import org.springframework.security.core.AuthenticationException;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro e login. O BCrypt roda no PasswordHashingService; aqui ficam só as leituras rápidas (cache de
+ * usuários) e a montagem do token, que acontece na conclusão do hash.
+ *
+ * <p>O que vai ao banco depois do hash (gravar o usuário, refazer o hash) roda num pool próprio: latência do banco
+ * ou espera por conexão não ocupa as threads do BCrypt, dimensionadas pelos núcleos.</p>
+ */
 @Service
 public class AuthService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     private final JwtService jwtService;
-    private  final AuthenticationManager authenticationManager;
+    private final UserCacheService userCacheService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor persistenceExecutor;
+    private final Executor persistence;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService, AuthenticationManager authenticationManager) {
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService, JwtService jwtService,
+                       UserCacheService userCacheService, PlatformTransactionManager transactionManager,
+                       @Value("${application.security.auth.executor.threads:4}") int threads,
+                       @Value("${application.security.auth.executor.queue-capacity:256}") int queueCapacity) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
-        this.authenticationManager = authenticationManager;
+        this.userCacheService = userCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.persistenceExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("auth-persistence-"), new ThreadPoolExecutor.AbortPolicy());
+        this.persistenceExecutor.allowCoreThreadTimeOut(true);
+        // Fila cheia vira 503 dentro do future, como a fila de hash
+        this.persistence = task -> {
+            try {
+                persistenceExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                throw new ServiceUnavailableException("Autenticação indisponível: fila de gravação cheia.", e);
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        persistenceExecutor.shutdownNow();
     }
 
-    public String register(String username, String password){
+    /** Username repetido falha com IllegalArgumentException: na hora, ou dentro do future se outro cadastro ganhou a corrida **/
+    public CompletableFuture<String> register(String username, String password){
         if(userRepository.findByUsername(username).isPresent()) {
             throw new IllegalArgumentException("Username já existe: " + username);
         }
 
-        User newUser = new User();
+        return passwordHashingService.encode(password).thenApplyAsync(passwordHash -> {
+            User newUser = new User();
 
+            newUser.setUsername(username);
+            newUser.setPassword(passwordHash);
 
-        newUser.setUsername(username);
-        newUser.setPassword(passwordEncoder.encode(password));
+            try {
+                userRepository.save(newUser);
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalArgumentException("Username já existe: " + username, e);
+            }
+            userCacheService.invalidate(newUser.getId(), username);
 
-        userRepository.save(newUser);
-
-        return jwtService.generateToken(newUser);
+            return jwtService.generateToken(newUser);
+        }, persistence);
     }
 
-    public String login(String username, String password) throws AuthenticationException {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-        );
+    /** Falha com BadCredentialsException (dentro do future) quando o usuário não existe ou a senha não confere **/
+    public CompletableFuture<String> login(String username, String password) {
+        Optional<UserSnapshot> snapshot = userCacheService.findByUsername(username);
+        if (snapshot.isEmpty()) {
+            return passwordHashingService.matchesUnknownUser(password).thenApply(matches -> {
+                throw new BadCredentialsException("Usuário ou senha inválidos.");
+            });
+        }
 
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado após autenticação."));
+        UserSnapshot user = snapshot.get();
+        return passwordHashingService.matches(password, user.passwordHash()).thenApply(matches -> {
+            if (!matches) {
+                throw new BadCredentialsException("Usuário ou senha inválidos.");
+            }
+            rehashIfOutdated(user, password);
+            return jwtService.generateToken(user.toUser());
+        });
+    }
 
-    return jwtService.generateToken(user);
+    /**
+     * Custo do BCrypt mudou desde que o hash foi gerado: refaz com a senha recém-verificada, sem atrasar o login.
+     * Se o pool estiver cheio ou a gravação falhar, fica para o próximo login.
+     */
+    private void rehashIfOutdated(UserSnapshot user, String password) {
+        if (!passwordHashingService.needsRehash(user.passwordHash())) {
+            return;
+        }
+        try {
+            passwordHashingService.encode(password)
+                    .thenAcceptAsync(newHash -> {
+                        Integer updated = transactionTemplate.execute(status ->
+                                userRepository.replacePasswordHash(user.id(), user.passwordHash(), newHash));
+                        if (updated != null && updated > 0) {
+                            userCacheService.invalidate(user.id(), user.username());
+                        }
+                    }, persistence)
+                    .exceptionally(e -> {
+                        logger.warn("Falha ao refazer o hash da senha do usuário {}", user.id(), e);
+                        return null;
+                    });
+        } catch (ServiceUnavailableException e) {
+            logger.debug("Rehash da senha do usuário {} adiado: pool de hash saturado", user.id());
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.rule.CategoryRuleRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.rule.CategoryRuleResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.CategoryRule;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.CategoryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.CategoryRuleRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Regras de categorização da importação de extratos. Padrão e descrição passam pela mesma normalização
+ * (sem acentos, minúsculas, espaços colapsados), então "Padaria São João" casa com "PADARIA SAO".
+ */
+@Service
+public class CategoryRuleService {
+
+    static final int MAX_RULES_PER_USER = 500;
+    static final int DEFAULT_PRIORITY = 100;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final CategoryRuleRepository categoryRuleRepository;
+    private final CategoryRepository categoryRepository;
+
+    public CategoryRuleService(CategoryRuleRepository categoryRuleRepository, CategoryRepository categoryRepository) {
+        this.categoryRuleRepository = categoryRuleRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategoryRuleResponse> getRules(Long userId) {
+        return categoryRuleRepository.findByUserIdOrderByPriorityAscIdAsc(userId).stream()
+                .map(CategoryRuleService::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public CategoryRuleResponse createRule(Long userId, CategoryRuleRequest request) {
+        String pattern = normalize(request.getPattern());
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Padrão da regra vazio.");
+        }
+        if (categoryRepository.findIdsByUserIdAndIdIn(userId, List.of(request.getCategoryId())).isEmpty()) {
+            throw new IllegalArgumentException("Categoria não encontrada com o ID: " + request.getCategoryId());
+        }
+        if (categoryRuleRepository.countByUserId(userId) >= MAX_RULES_PER_USER) {
+            throw new IllegalArgumentException("Limite de " + MAX_RULES_PER_USER + " regras por usuário atingido.");
+        }
+        int priority = request.getPriority() != null ? request.getPriority() : DEFAULT_PRIORITY;
+        CategoryRule saved = categoryRuleRepository.save(new CategoryRule(userId, request.getCategoryId(), request.getKind(), pattern, priority));
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public void deleteRule(Long userId, Long ruleId) {
+        CategoryRule rule = categoryRuleRepository.findByIdAndUserId(ruleId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Regra não encontrada com o ID: " + ruleId));
+        categoryRuleRepository.delete(rule);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteForCategory(Long categoryId) {
+        categoryRuleRepository.deleteByCategoryId(categoryId);
+    }
+
+    /** Regras do usuário carregadas uma vez; o matcher é usado para todas as linhas de uma importação **/
+    @Transactional(readOnly = true)
+    public RuleMatcher matcherFor(Long userId) {
+        return new RuleMatcher(categoryRuleRepository.findByUserIdOrderByPriorityAscIdAsc(userId));
+    }
+
+    static String normalize(String text) {
+        String withoutDiacritics = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(withoutDiacritics.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static CategoryRuleResponse toResponse(CategoryRule rule) {
+        return new CategoryRuleResponse(
+                rule.getId(),
+                rule.getPattern(),
+                rule.getCategoryId(),
+                rule.getKind() != null ? rule.getKind().name() : null,
+                rule.getPriority()
+        );
+    }
+
+    /** Primeira regra (por prioridade) cujo padrão aparece na descrição; null se nenhuma casar **/
+    static final class RuleMatcher {
+
+        private final List<CategoryRule> rules;
+
+        private RuleMatcher(List<CategoryRule> rules) {
+            this.rules = rules;
+        }
+
+        Long categoryFor(String description, EntryKind kind) {
+            String normalized = normalize(description);
+            for (CategoryRule rule : rules) {
+                if ((rule.getKind() == null || rule.getKind() == kind) && normalized.contains(rule.getPattern())) {
+                    return rule.getCategoryId();
+                }
+            }
+            return null;
+        }
+    }
+}
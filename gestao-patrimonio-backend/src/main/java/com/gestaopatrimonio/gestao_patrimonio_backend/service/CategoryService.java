@@ -3,12 +3,17 @@ package com.gestaopatrimonio.gestao_patrimonio_backend.service;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryRequest;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryResponse;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
 import com.gestaopatrimonio.gestao_patrimonio_backend.repository.CategoryRepository;
-import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ProfitEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -17,59 +22,62 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository; // NOVO CAMPO INJETADO
-
-    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository) { // CONSTRUTOR ATUALIZADO
+    private final UserCacheService userCacheService; // NOVO CAMPO INJETADO
+    private final CategoryTotalsService categoryTotalsService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final EntrySearchService entrySearchService;
+    private final CategoryRuleService categoryRuleService;
+    private final ProfitEntryRepository profitEntryRepository;
+    private final ExpenseEntryRepository expenseEntryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryService(CategoryRepository categoryRepository, UserCacheService userCacheService, CategoryTotalsService categoryTotalsService, MonthlyRollupService monthlyRollupService, EntrySearchService entrySearchService, CategoryRuleService categoryRuleService,
+                           ProfitEntryRepository profitEntryRepository, ExpenseEntryRepository expenseEntryRepository, ApplicationEventPublisher eventPublisher) { // CONSTRUTOR ATUALIZADO
         this.categoryRepository = categoryRepository;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
+        this.categoryTotalsService = categoryTotalsService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.entrySearchService = entrySearchService;
+        this.categoryRuleService = categoryRuleService;
+        this.profitEntryRepository = profitEntryRepository;
+        this.expenseEntryRepository = expenseEntryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
 
     @Transactional
     public CategoryResponse createCategory(CategoryRequest request, Long userId){ // <--- NOVO PARÂMETRO userId
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
+        User user = userCacheService.getReference(userId); // Referência, sem SELECT em users
 
-        if(categoryRepository.findByNameAndUser(request.getName(), user).isPresent()){ // <--- CORREÇÃO: findByNameAndUser
+        if(categoryRepository.findByNameAndUserId(request.getName(), userId).isPresent()){
             throw new IllegalArgumentException("Categoria com o nome: " + request.getName() + ", já existe para este usuário.");
         }
         Category category = new Category(request.getName(), request.getType(), user); // <--- ATUALIZADO: Passa o objeto 'user'
         Category savedCategory = categoryRepository.save(category);
+        categoryTotalsService.initialize(userId, savedCategory.getId(), EntryKind.valueOf(savedCategory.getType()));
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
         return new CategoryResponse(savedCategory.getId(), savedCategory.getName(), savedCategory.getType());
     }
 
 
     public Optional<CategoryResponse> getCategoryByIdAndUser(Long id, Long userId){ // <--- NOVO PARÂMETRO userId
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-
-        return categoryRepository.findById(id)
-                .filter(category -> category.getUser().getId().equals(userId)) // Garante que a categoria pertence ao usuário
+        return categoryRepository.findByIdAndUserId(id, userId) // Garante que a categoria pertence ao usuário
                 .map(category -> new CategoryResponse(category.getId(), category.getName(), category.getType())); // Converte para DTO
     }
 
 
     public List<CategoryResponse> getAllCategoriesByUserId(Long userId){ // <--- NOVO MÉTODO: getAllCategoriesByUserId
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-
-        return categoryRepository.findByUserOrderByNameAsc(user).stream() // <--- ATUALIZADO: Usa findByUserOrderByNameAsc
+        return categoryRepository.findByUserIdOrderByNameAsc(userId).stream()
                 .map(category -> new CategoryResponse(category.getId(), category.getName(), category.getType()))
                 .collect(Collectors.toList());
     }
     @Transactional
     public CategoryResponse updateCategory(Long id, CategoryRequest request, Long userId){ // <--- NOVO PARÂMETRO userId
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-
-        Category existingCategory = categoryRepository.findById(id)
+        // Posse conferida na própria consulta: categoria de outro usuário é tratada como inexistente
+        Category existingCategory = categoryRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com ID: " + id));
 
-        if (!existingCategory.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("Categoria não pertence ao usuário.");
-        }
-
-        Optional<Category> categoryWithSameName = categoryRepository.findByNameAndUser(request.getName(), user);
+        Optional<Category> categoryWithSameName = categoryRepository.findByNameAndUserId(request.getName(), userId);
         if (categoryWithSameName.isPresent() && !categoryWithSameName.get().getId().equals(id)) {
             throw new IllegalArgumentException("Já existe uma categoria com o nome '" + request.getName() + "' para este usuário.");
         }
@@ -78,20 +86,34 @@ public class CategoryService {
         existingCategory.setType(request.getType());
 
         Category updated = categoryRepository.save(existingCategory);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
         return new CategoryResponse(updated.getId(), updated.getName(), updated.getType());
     }
 
     @Transactional
     public void deleteCategory(Long id, Long userId){ // <--- NOVO PARÂMETRO userId
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-
-        Category existingCategory = categoryRepository.findById(id)
+        Category existingCategory = categoryRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com o ID: " + id));
 
-        if (!existingCategory.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("Categoria não pertence ao usuário.");
+        // Os lançamentos da categoria saem junto: o histórico muda a partir do mês do mais antigo
+        // Lido das tabelas de lançamento, antes do DELETE: não depende de a categoria já ter rollups
+        LocalDate affectedFrom = earliest(profitEntryRepository.findFirstDateByUserIdAndCategoryId(userId, id),
+                expenseEntryRepository.findFirstDateByUserIdAndCategoryId(userId, id));
+        categoryTotalsService.deleteForCategory(id);
+        monthlyRollupService.deleteForCategory(id);
+        entrySearchService.deleteForCategory(id);
+        categoryRuleService.deleteForCategory(id);
+        // Um DELETE por tabela; lançamentos de qualquer tipo podem apontar para a categoria
+        profitEntryRepository.deleteByCategoryId(id);
+        expenseEntryRepository.deleteByCategoryId(id);
+        categoryRepository.delete(existingCategory);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, affectedFrom));
+    }
+
+    private static LocalDate earliest(Optional<LocalDate> first, Optional<LocalDate> second) {
+        if (first.isEmpty()) {
+            return second.orElse(null);
         }
-        categoryRepository.deleteById(id);
+        return second.filter(date -> date.isBefore(first.get())).orElse(first.get());
     }
 }
\ No newline at end of file
@@ -0,0 +1,221 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.CentsByKeyAccumulator;
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.MoneyCents;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.CategorySummaryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.CategoryTotalDriftResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.TotalsReconciliationResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.CategoryTotal;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.CategoryTotalRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ProfitEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.EntryAggregateProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.EntryAmountProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém a tabela category_totals: cada escrita de lançamento aplica o seu delta na mesma transação, logo depois
+ * da escrita, e o resumo lê O(#categorias) linhas em vez de varrer os lançamentos.
+ */
+@Service
+public class CategoryTotalsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryTotalsService.class);
+
+    static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final CategoryTotalRepository categoryTotalRepository;
+    private final ProfitEntryRepository profitEntryRepository;
+    private final ExpenseEntryRepository expenseEntryRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryTotalsService(CategoryTotalRepository categoryTotalRepository, ProfitEntryRepository profitEntryRepository, ExpenseEntryRepository expenseEntryRepository,
+                                 UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
+        this.categoryTotalRepository = categoryTotalRepository;
+        this.profitEntryRepository = profitEntryRepository;
+        this.expenseEntryRepository = expenseEntryRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initialize(Long userId, Long categoryId, EntryKind kind) {
+        categoryTotalRepository.save(new CategoryTotal(userId, categoryId, kind, BigDecimal.ZERO, 0));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long userId, Long categoryId, EntryKind kind, BigDecimal amount) {
+        apply(userId, categoryId, kind, amount, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Long userId, Long categoryId, EntryKind kind, BigDecimal amount) {
+        apply(userId, categoryId, kind, amount.negate(), -1);
+    }
+
+    /** Criação em lote: um UPDATE por categoria, com soma e contagem já agregadas (chave = categoryId) **/
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addBatch(Long userId, EntryKind kind, CentsByKeyAccumulator byCategory) {
+        byCategory.forEach((categoryId, cents, count) -> apply(userId, categoryId, kind, MoneyCents.fromCents(cents), count));
+    }
+
+    /** Exclusão ou troca de categoria em massa: o inverso de addBatch, com os agregados dos lançamentos afetados **/
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeBatch(Long userId, EntryKind kind, CentsByKeyAccumulator byCategory) {
+        byCategory.forEach((categoryId, cents, count) -> apply(userId, categoryId, kind, MoneyCents.fromCents(cents).negate(), -count));
+    }
+
+    /** Atualização de lançamento, inclusive a troca de categoria. **/
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replace(Long userId, EntryKind kind, Long previousCategoryId, BigDecimal previousAmount, Long newCategoryId, BigDecimal newAmount) {
+        if (previousCategoryId.equals(newCategoryId)) {
+            if (previousAmount.compareTo(newAmount) != 0) {
+                apply(userId, newCategoryId, kind, newAmount.subtract(previousAmount), 0);
+            }
+            return;
+        }
+        remove(userId, previousCategoryId, kind, previousAmount);
+        add(userId, newCategoryId, kind, newAmount);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteForCategory(Long categoryId) {
+        categoryTotalRepository.deleteByCategoryId(categoryId);
+    }
+
+    private void apply(Long userId, Long categoryId, EntryKind kind, BigDecimal amount, long count) {
+        if (categoryTotalRepository.addToTotal(userId, categoryId, kind, amount, count) == 0) {
+            seed(userId, categoryId, kind, amount, count);
+        }
+    }
+
+    /**
+     * Linha ausente (categoria anterior a esta tabela, ou lançamento em categoria de outro tipo): cria a linha a
+     * partir dos lançamentos existentes. Os chamadores aplicam o delta depois da escrita, então o recálculo já
+     * inclui o lançamento e o delta não é somado de novo.
+     */
+    private void seed(Long userId, Long categoryId, EntryKind kind, BigDecimal amount, long count) {
+        // Trava o usuário: duas primeiras escritas concorrentes não criam a mesma linha duas vezes
+        userRepository.findByIdForUpdate(userId);
+        if (categoryTotalRepository.addToTotal(userId, categoryId, kind, amount, count) > 0) {
+            return; // Outra transação criou a linha enquanto esperávamos; o recálculo dela não via este lançamento
+        }
+        categoryTotalRepository.flush();
+        EntryAggregateProjection existing = kind == EntryKind.PROFIT
+                ? profitEntryRepository.aggregateByUserAndCategory(userId, categoryId)
+                : expenseEntryRepository.aggregateByUserAndCategory(userId, categoryId);
+        categoryTotalRepository.save(new CategoryTotal(userId, categoryId, kind, existing.getTotalAmount(), existing.getEntryCount()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategorySummaryResponse> getSummary(Long userId, EntryKind kind) {
+        return categoryTotalRepository.findSummaryByUserIdAndKind(userId, kind).stream()
+                .map(row -> new CategorySummaryResponse(
+                        row.getCategoryId(),
+                        row.getCategoryName(),
+                        row.getCategoryType(),
+                        row.getTotalAmount()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recalcula os totais a partir dos lançamentos, em blocos de REBUILD_CHUNK_SIZE linhas, e compara com
+     * o que está armazenado. Com repair=true as divergências encontradas são corrigidas.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public TotalsReconciliationResponse reconcile(Long userId, boolean repair) {
+        Map<EntryKind, CentsByKeyAccumulator> expected = new EnumMap<>(EntryKind.class);
+        expected.put(EntryKind.PROFIT, new CentsByKeyAccumulator());
+        expected.put(EntryKind.EXPENSE, new CentsByKeyAccumulator());
+        long scanned = scan(userId, profitEntryRepository::findAmountChunk, expected.get(EntryKind.PROFIT))
+                + scan(userId, expenseEntryRepository::findAmountChunk, expected.get(EntryKind.EXPENSE));
+
+        List<CategoryTotalDriftResponse> drifts = new ArrayList<>();
+        Set<TotalKey> seen = new HashSet<>();
+        for (CategoryTotal current : categoryTotalRepository.findByUserId(userId)) {
+            CentsByKeyAccumulator recomputed = expected.get(current.getKind());
+            long categoryId = current.getCategoryId();
+            seen.add(new TotalKey(current.getCategoryId(), current.getKind()));
+
+            long expectedCents = recomputed.centsOf(categoryId);
+            long expectedCount = recomputed.countOf(categoryId);
+            if (MoneyCents.toCents(current.getTotal()) == expectedCents && current.getEntryCount() == expectedCount) {
+                continue;
+            }
+            drifts.add(new CategoryTotalDriftResponse(current.getCategoryId(), current.getKind().name(),
+                    MoneyCents.fromCents(expectedCents), current.getTotal(), expectedCount, current.getEntryCount()));
+            if (repair) {
+                current.setTotal(MoneyCents.fromCents(expectedCents));
+                current.setEntryCount(expectedCount);
+            }
+        }
+
+        // Categorias com lançamentos mas sem linha em category_totals
+        for (Map.Entry<EntryKind, CentsByKeyAccumulator> byKind : expected.entrySet()) {
+            EntryKind kind = byKind.getKey();
+            byKind.getValue().forEach((categoryId, cents, count) -> {
+                if (seen.contains(new TotalKey(categoryId, kind))) {
+                    return;
+                }
+                drifts.add(new CategoryTotalDriftResponse(categoryId, kind.name(), MoneyCents.fromCents(cents), BigDecimal.ZERO, count, 0));
+                if (repair) {
+                    categoryTotalRepository.save(new CategoryTotal(userId, categoryId, kind, MoneyCents.fromCents(cents), count));
+                }
+            });
+        }
+
+        if (!drifts.isEmpty()) {
+            logger.warn("category_totals drift for user {}: {} row(s), repaired={}", userId, drifts.size(), repair);
+            if (repair) {
+                eventPublisher.publishEvent(new FinancialDataChangedEvent(userId));
+            }
+        }
+        return new TotalsReconciliationResponse(scanned, repair && !drifts.isEmpty(), drifts);
+    }
+
+    private long scan(Long userId, ChunkLoader loader, CentsByKeyAccumulator accumulator) {
+        Pageable chunk = PageRequest.of(0, REBUILD_CHUNK_SIZE);
+        long afterId = 0L;
+        long scanned = 0;
+        List<EntryAmountProjection> rows;
+        do {
+            rows = loader.load(userId, afterId, chunk);
+            for (EntryAmountProjection row : rows) {
+                accumulator.add(row.getCategoryId(), MoneyCents.toCents(row.getAmount()));
+                afterId = row.getId();
+            }
+            scanned += rows.size();
+        } while (rows.size() == REBUILD_CHUNK_SIZE);
+        return scanned;
+    }
+
+    @FunctionalInterface
+    private interface ChunkLoader {
+        List<EntryAmountProjection> load(Long userId, Long afterId, Pageable pageable);
+    }
+
+    private record TotalKey(Long categoryId, EntryKind kind) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versão dos dados financeiros de cada usuário, usada como ETag das leituras (resumo, categorias, lançamentos).
+ * A versão sobe na mesma transação da escrita, então um cliente nunca recebe uma ETag nova com dados antigos.
+ */
+@Service
+public class DataVersionService {
+
+    private final UserRepository userRepository;
+
+    public DataVersionService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // BEFORE_COMMIT: ainda dentro da transação da escrita, o UPDATE é confirmado junto com os lançamentos
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        userRepository.bumpDataVersion(event.userId());
+    }
+
+    @Transactional(readOnly = true)
+    public long getDataVersion(Long userId) {
+        return userRepository.findDataVersionById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
+    }
+
+    /** ETag forte para um recurso do usuário; a versão é lida antes dos dados, nunca depois **/
+    public String etag(String resource, Long userId) {
+        return etag(resource, userId, getDataVersion(userId));
+    }
+
+    /** ETag para uma versão já lida, quando os dados também dependem dela (resumo em cache) **/
+    public String etag(String resource, Long userId, long dataVersion) {
+        return "\"" + resource + "-" + userId + "-" + dataVersion + "\"";
+    }
+}
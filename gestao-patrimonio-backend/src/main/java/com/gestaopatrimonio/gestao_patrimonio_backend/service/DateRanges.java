@@ -0,0 +1,28 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import java.time.LocalDate;
+
+/**
+ * Limites padrão para filtros from/to opcionais. Manter sempre um BETWEEN (em vez de ramificar a consulta)
+ * faz com que toda listagem seja um range scan nos índices (user_id, date) / (user_id, category_id, date).
+ */
+final class DateRanges {
+
+    static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private DateRanges() {
+    }
+
+    static LocalDate lowerBound(LocalDate from) {
+        return from != null ? from : MIN_DATE;
+    }
+
+    static LocalDate upperBound(LocalDate to) {
+        return to != null ? to : MAX_DATE;
+    }
+
+    static boolean isUnbounded(LocalDate from, LocalDate to) {
+        return from == null && to == null;
+    }
+}
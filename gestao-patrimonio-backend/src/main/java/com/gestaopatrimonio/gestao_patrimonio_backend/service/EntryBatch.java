@@ -0,0 +1,82 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchItemResult;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Regras comuns da criação em lote de lucros e gastos: limite do lote, validação item a item
+ * (um item inválido não derruba os demais) e montagem do relatório na ordem da requisição.
+ */
+final class EntryBatch {
+
+    static final int MAX_SIZE = 5000;
+
+    // precision = 10, scale = 2 e o tamanho padrão de VARCHAR nas colunas de lançamento
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private EntryBatch() {
+    }
+
+    static void checkSize(List<EntryRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Lote vazio.");
+        }
+        if (requests.size() > MAX_SIZE) {
+            throw new IllegalArgumentException("Lote com mais de " + MAX_SIZE + " itens.");
+        }
+    }
+
+    static Set<Long> distinctCategoryIds(List<EntryRequest> requests) {
+        return requests.stream()
+                .filter(Objects::nonNull)
+                .map(EntryRequest::getCategoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /** Mesmas regras do @Valid do endpoint unitário; null quando o item é válido **/
+    static String validationError(Validator validator, EntryRequest request) {
+        if (request == null) {
+            return "Item vazio.";
+        }
+        Set<ConstraintViolation<EntryRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        // Limites das colunas: no lote, um item fora deles derrubaria o flush inteiro em vez de falhar sozinho
+        if (request.getAmount().scale() > 2 && request.getAmount().stripTrailingZeros().scale() > 2) {
+            return "amount: Valor com mais de 2 casas decimais.";
+        }
+        if (request.getAmount().compareTo(MAX_AMOUNT) > 0) {
+            return "amount: Valor acima do máximo permitido (" + MAX_AMOUNT.toPlainString() + ").";
+        }
+        if (request.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "description: Descrição com mais de " + MAX_DESCRIPTION_LENGTH + " caracteres.";
+        }
+        return null;
+    }
+
+    static EntryBatchItemResult failure(int index, String error) {
+        return new EntryBatchItemResult(index, null, error);
+    }
+
+    static EntryBatchResponse report(EntryBatchItemResult[] results) {
+        int created = (int) Arrays.stream(results).filter(result -> result.getId() != null).count();
+        return new EntryBatchResponse(created, results.length - created, Arrays.asList(results));
+    }
+}
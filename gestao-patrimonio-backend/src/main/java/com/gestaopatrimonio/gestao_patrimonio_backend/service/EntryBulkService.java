@@ -0,0 +1,202 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.CentsByKeyAccumulator;
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.MoneyCents;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBulkResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryFilterRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRecategorizeRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntrySearchTerm;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.ProfitEntry;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Troca de categoria e exclusão em massa: cada operação é um único UPDATE/DELETE por tabela, com os filtros
+ * da listagem filtrada e sempre restrito ao usuário; nenhum lançamento é carregado como entidade.
+ *
+ * <p>Os agregados (category_totals, monthly_rollups) são ajustados a partir de um SELECT agrupado por
+ * (categoria, dia) sobre as mesmas linhas, lido antes da escrita. Em REPEATABLE_READ, esse SELECT e o
+ * UPDATE/DELETE enxergam o mesmo snapshot.</p>
+ */
+@Service
+public class EntryBulkService {
+
+    private final EntityManager entityManager;
+    private final CategoryRepository categoryRepository;
+    private final CategoryTotalsService categoryTotalsService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntryBulkService(EntityManager entityManager, CategoryRepository categoryRepository, CategoryTotalsService categoryTotalsService,
+                            MonthlyRollupService monthlyRollupService, ApplicationEventPublisher eventPublisher) {
+        this.entityManager = entityManager;
+        this.categoryRepository = categoryRepository;
+        this.categoryTotalsService = categoryTotalsService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public EntryBulkResponse recategorize(Long userId, EntryKind kind, EntryRecategorizeRequest request) {
+        Long fromCategoryId = request.getFromCategoryId();
+        Long toCategoryId = request.getToCategoryId();
+        if (fromCategoryId.equals(toCategoryId)) {
+            throw new IllegalArgumentException("Categoria de destino igual à de origem.");
+        }
+        EntryFilterRequest filter = request.getFilter() != null ? request.getFilter() : new EntryFilterRequest();
+        if (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty()) {
+            throw new IllegalArgumentException("Na troca de categoria o filtro não aceita categoryIds; a categoria é a de origem.");
+        }
+        if (categoryRepository.findIdsByUserIdAndIdIn(userId, Set.of(fromCategoryId, toCategoryId)).size() != 2) {
+            throw new IllegalArgumentException("Categoria de origem ou de destino não encontrada para este usuário.");
+        }
+        EntryFilterRequest scoped = new EntryFilterRequest(List.of(fromCategoryId), filter.getMinAmount(), filter.getMaxAmount(),
+                filter.getFrom(), filter.getTo(), filter.getQ(), null, null);
+        return recategorize(userId, kind, entityOf(kind), scoped, fromCategoryId, toCategoryId);
+    }
+
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public EntryBulkResponse delete(Long userId, EntryKind kind, EntryFilterRequest filter) {
+        if (filter == null || !EntrySpecifications.hasCriteria(filter)) {
+            throw new IllegalArgumentException("Exclusão em massa exige ao menos um filtro (categorias, datas, valores ou descrição).");
+        }
+        return delete(userId, kind, entityOf(kind), filter);
+    }
+
+    private <T> EntryBulkResponse recategorize(Long userId, EntryKind kind, Class<T> type, EntryFilterRequest filter,
+                                               Long fromCategoryId, Long toCategoryId) {
+        Specification<T> spec = EntrySpecifications.forBulk(userId, kind, filter);
+        AffectedRows affected = sumByCategoryAndDate(type, spec);
+        if (affected.entries() == 0) {
+            return new EntryBulkResponse(0);
+        }
+        CentsByKeyAccumulator byTargetMonth = new CentsByKeyAccumulator(affected.byCategoryMonth().size());
+        for (Tuple row : affected.rows()) {
+            byTargetMonth.add(MonthlyRollupService.rollupKey(toCategoryId, row.get(1, LocalDate.class)),
+                    MoneyCents.toCents(row.get(2, BigDecimal.class)), row.get(3, Long.class));
+        }
+        CentsByKeyAccumulator byTarget = new CentsByKeyAccumulator(1);
+        byTarget.add(toCategoryId, affected.byCategory().totalCents(), affected.byCategory().totalCount());
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        // Índice de busca antes dos lançamentos: o subselect ainda precisa enxergar a categoria de origem
+        CriteriaUpdate<EntrySearchTerm> terms = cb.createCriteriaUpdate(EntrySearchTerm.class);
+        Root<EntrySearchTerm> term = terms.from(EntrySearchTerm.class);
+        terms.set(term.<Long>get("categoryId"), toCategoryId)
+                .where(cb.equal(term.get("kind"), kind), term.get("entryId").in(matchingIds(terms, type, spec)));
+        entityManager.createQuery(terms).executeUpdate();
+
+        CriteriaUpdate<T> entries = cb.createCriteriaUpdate(type);
+        Root<T> entry = entries.from(type);
+        entries.set(entry.<Category>get("category"), categoryRepository.getReferenceById(toCategoryId))
+                .where(spec.toPredicate(entry, cb.createQuery(type), cb));
+        int updated = entityManager.createQuery(entries).executeUpdate();
+
+        categoryTotalsService.removeBatch(userId, kind, affected.byCategory());
+        categoryTotalsService.addBatch(userId, kind, byTarget);
+        monthlyRollupService.removeBatch(userId, kind, affected.byCategoryMonth());
+        monthlyRollupService.addBatch(userId, kind, byTargetMonth);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, affected.earliestDate()));
+        return new EntryBulkResponse(updated);
+    }
+
+    private <T> EntryBulkResponse delete(Long userId, EntryKind kind, Class<T> type, EntryFilterRequest filter) {
+        Specification<T> spec = EntrySpecifications.forBulk(userId, kind, filter);
+        AffectedRows affected = sumByCategoryAndDate(type, spec);
+        if (affected.entries() == 0) {
+            return new EntryBulkResponse(0);
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<EntrySearchTerm> terms = cb.createCriteriaDelete(EntrySearchTerm.class);
+        Root<EntrySearchTerm> term = terms.from(EntrySearchTerm.class);
+        terms.where(cb.equal(term.get("kind"), kind), term.get("entryId").in(matchingIds(terms, type, spec)));
+        entityManager.createQuery(terms).executeUpdate();
+
+        CriteriaDelete<T> entries = cb.createCriteriaDelete(type);
+        Root<T> entry = entries.from(type);
+        entries.where(spec.toPredicate(entry, cb.createQuery(type), cb));
+        int deleted = entityManager.createQuery(entries).executeUpdate();
+
+        categoryTotalsService.removeBatch(userId, kind, affected.byCategory());
+        monthlyRollupService.removeBatch(userId, kind, affected.byCategoryMonth());
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, affected.earliestDate()));
+        return new EntryBulkResponse(deleted);
+    }
+
+    /** SUM/COUNT por (categoria, dia) das linhas que a operação vai tocar: no máximo uma linha por dia distinto **/
+    private <T> AffectedRows sumByCategoryAndDate(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        Path<Long> categoryId = root.get("category").get("id");
+        Path<LocalDate> date = root.get("date");
+        query.multiselect(categoryId, date, cb.sum(root.<BigDecimal>get("amount")), cb.count(root))
+                .where(spec.toPredicate(root, query, cb))
+                .groupBy(categoryId, date);
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+
+        CentsByKeyAccumulator byCategory = new CentsByKeyAccumulator();
+        CentsByKeyAccumulator byCategoryMonth = new CentsByKeyAccumulator(Math.max(16, rows.size() / 8));
+        LocalDate earliestDate = null;
+        for (Tuple row : rows) {
+            long rowCategoryId = row.get(0, Long.class);
+            LocalDate rowDate = row.get(1, LocalDate.class);
+            long cents = MoneyCents.toCents(row.get(2, BigDecimal.class));
+            long count = row.get(3, Long.class);
+            byCategory.add(rowCategoryId, cents, count);
+            byCategoryMonth.add(MonthlyRollupService.rollupKey(rowCategoryId, rowDate), cents, count);
+            if (earliestDate == null || rowDate.isBefore(earliestDate)) {
+                earliestDate = rowDate;
+            }
+        }
+        return new AffectedRows(rows, byCategory, byCategoryMonth, earliestDate);
+    }
+
+    /**
+     * ids dos lançamentos atendidos pela especificação, como subselect de outro UPDATE/DELETE. Os subselects da
+     * própria especificação (filtro de descrição) partem de uma consulta auxiliar, como no delete(Specification)
+     * do Spring Data: CriteriaUpdate/CriteriaDelete não são CriteriaQuery.
+     */
+    private <T> Subquery<Long> matchingIds(CommonAbstractCriteria statement, Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Subquery<Long> ids = statement.subquery(Long.class);
+        Root<T> entry = ids.from(type);
+        return ids.select(entry.<Long>get("id")).where(spec.toPredicate(entry, cb.createQuery(type), cb));
+    }
+
+    private static Class<?> entityOf(EntryKind kind) {
+        return kind == EntryKind.PROFIT ? ProfitEntry.class : ExpenseEntry.class;
+    }
+
+    private record AffectedRows(List<Tuple> rows, CentsByKeyAccumulator byCategory, CentsByKeyAccumulator byCategoryMonth,
+                                LocalDate earliestDate) {
+
+        long entries() {
+            return byCategory.totalCount();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Chave de busca (date, id) do último item entregue. Para o cliente é um token opaco em base64url.
+ */
+public record EntryCursor(LocalDate date, Long id) {
+
+    /** Posição antes do primeiro item de uma listagem que termina em {@code to} **/
+    static EntryCursor start(LocalDate to) {
+        return new EntryCursor(to, Long.MAX_VALUE);
+    }
+
+    public String encode() {
+        String raw = date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EntryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new EntryCursor(LocalDate.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.", e);
+        }
+    }
+}
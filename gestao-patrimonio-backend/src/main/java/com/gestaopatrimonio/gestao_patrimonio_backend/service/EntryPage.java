@@ -0,0 +1,32 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Uma página de lançamentos e o cursor da próxima (null na última).
+ */
+public record EntryPage<T>(List<T> items, EntryCursor next) {
+
+    static final int DEFAULT_SIZE = 50;
+    static final int MAX_SIZE = 200;
+
+    static int resolveSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Tamanho de página deve ser positivo.");
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /** Recebe até size + 1 linhas: a linha extra só indica que existe uma próxima página **/
+    static <T> EntryPage<T> of(List<T> rows, int size, Function<T, EntryCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new EntryPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new EntryPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+}
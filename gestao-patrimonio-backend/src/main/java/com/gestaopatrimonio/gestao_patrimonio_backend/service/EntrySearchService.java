@@ -0,0 +1,194 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.search.EntrySearchResultResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.search.SearchReindexResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntrySearchTerm;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.EntrySearchTermRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ProfitEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.EntryDescriptionProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.SearchTermMatchProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.UnindexedEntryProjection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Busca nas descrições de lançamentos através do índice invertido entry_search_terms.
+ * Cada termo da consulta vira um range scan por prefixo; o ranking soma 2 por termo exato e 1 por prefixo.
+ */
+@Service
+public class EntrySearchService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+    static final int MAX_QUERY_TOKENS = 5;
+    // Teto de ocorrências lidas por termo da consulta: prefixos muito comuns não viram varredura do índice inteiro
+    static final int MAX_MATCHES_PER_TOKEN = 2000;
+
+    private final EntrySearchTermRepository searchTermRepository;
+    private final ProfitEntryRepository profitEntryRepository;
+    private final ExpenseEntryRepository expenseEntryRepository;
+
+    public EntrySearchService(EntrySearchTermRepository searchTermRepository, ProfitEntryRepository profitEntryRepository,
+                              ExpenseEntryRepository expenseEntryRepository) {
+        this.searchTermRepository = searchTermRepository;
+        this.profitEntryRepository = profitEntryRepository;
+        this.expenseEntryRepository = expenseEntryRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void index(Long userId, EntryKind kind, Long entryId, Long categoryId, String description) {
+        searchTermRepository.saveAll(termsOf(userId, kind, entryId, categoryId, description));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reindex(Long userId, EntryKind kind, Long entryId, Long categoryId, String description) {
+        searchTermRepository.deleteByEntry(kind, entryId);
+        index(userId, kind, entryId, categoryId, description);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(EntryKind kind, Long entryId) {
+        searchTermRepository.deleteByEntry(kind, entryId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteForCategory(Long categoryId) {
+        searchTermRepository.deleteByCategoryId(categoryId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EntrySearchResultResponse> search(Long userId, String query, Integer limit) {
+        List<String> queryTokens = SearchTokenizer.tokenize(query).stream().limit(MAX_QUERY_TOKENS).toList();
+        if (queryTokens.isEmpty()) {
+            throw new IllegalArgumentException("Busca precisa de ao menos um termo com " + SearchTokenizer.MIN_TOKEN_LENGTH + " caracteres.");
+        }
+        int resultLimit = resolveLimit(limit);
+
+        // Pontuação por lançamento: cada termo da consulta conta uma vez, com o melhor casamento (exato > prefixo)
+        Map<EntryKind, Map<Long, Integer>> scores = new EnumMap<>(EntryKind.class);
+        Pageable matchLimit = PageRequest.of(0, MAX_MATCHES_PER_TOKEN);
+        for (String token : queryTokens) {
+            Map<EntryKind, Map<Long, Integer>> tokenScores = new EnumMap<>(EntryKind.class);
+            for (SearchTermMatchProjection match : searchTermRepository.findPrefixMatches(userId, token, SearchTokenizer.prefixUpperBound(token), matchLimit)) {
+                int points = match.getTerm().equals(token) ? 2 : 1;
+                tokenScores.computeIfAbsent(match.getKind(), kind -> new HashMap<>()).merge(match.getEntryId(), points, Math::max);
+            }
+            tokenScores.forEach((kind, byEntry) -> byEntry.forEach((entryId, points) ->
+                    scores.computeIfAbsent(kind, k -> new HashMap<>()).merge(entryId, points, Integer::sum)));
+        }
+
+        List<EntrySearchResultResponse> results = new ArrayList<>();
+        results.addAll(loadResults(userId, EntryKind.PROFIT, scores.get(EntryKind.PROFIT), resultLimit, profitEntryRepository::findResponsesByUserAndIdIn));
+        results.addAll(loadResults(userId, EntryKind.EXPENSE, scores.get(EntryKind.EXPENSE), resultLimit, expenseEntryRepository::findResponsesByUserAndIdIn));
+        results.sort(Comparator.comparingInt(EntrySearchResultResponse::getScore).reversed()
+                .thenComparing((EntrySearchResultResponse result) -> result.getEntry().getDate(), Comparator.reverseOrder())
+                .thenComparing((EntrySearchResultResponse result) -> result.getEntry().getId(), Comparator.reverseOrder()));
+        return results.size() > resultLimit ? results.subList(0, resultLimit) : results;
+    }
+
+    /** Reconstrói o índice do usuário a partir dos lançamentos, em blocos por id **/
+    @Transactional
+    public SearchReindexResponse rebuild(Long userId) {
+        searchTermRepository.deleteByUserId(userId);
+        long[] counters = new long[2];
+        rebuildKind(userId, EntryKind.PROFIT, profitEntryRepository::findDescriptionChunk, counters);
+        rebuildKind(userId, EntryKind.EXPENSE, expenseEntryRepository::findDescriptionChunk, counters);
+        return new SearchReindexResponse(counters[0], counters[1]);
+    }
+
+    /**
+     * Indexa um bloco de lançamentos sem termos (anteriores ao índice), de todos os usuários. Usado pelo backfill
+     * da subida; o chamador repete com {@link BackfillChunk#lastId()} até {@link BackfillChunk#done()}.
+     * Descrições sem nenhum termo indexável continuam sem linhas e são só relidas na próxima subida.
+     */
+    @Transactional
+    public BackfillChunk indexUnindexed(EntryKind kind, Long afterId) {
+        Pageable chunk = PageRequest.of(0, CategoryTotalsService.REBUILD_CHUNK_SIZE);
+        List<UnindexedEntryProjection> rows = kind == EntryKind.PROFIT
+                ? profitEntryRepository.findUnindexedChunk(kind, afterId, chunk)
+                : expenseEntryRepository.findUnindexedChunk(kind, afterId, chunk);
+        List<EntrySearchTerm> terms = new ArrayList<>();
+        Long lastId = afterId;
+        for (UnindexedEntryProjection row : rows) {
+            terms.addAll(termsOf(row.getUserId(), kind, row.getId(), row.getCategoryId(), row.getDescription()));
+            lastId = row.getId();
+        }
+        searchTermRepository.saveAll(terms);
+        return new BackfillChunk(lastId, rows.size(), rows.size() < CategoryTotalsService.REBUILD_CHUNK_SIZE);
+    }
+
+    private void rebuildKind(Long userId, EntryKind kind, ChunkReader reader, long[] counters) {
+        Pageable chunk = PageRequest.of(0, CategoryTotalsService.REBUILD_CHUNK_SIZE);
+        Long afterId = 0L;
+        List<EntryDescriptionProjection> rows;
+        do {
+            rows = reader.read(userId, afterId, chunk);
+            List<EntrySearchTerm> terms = new ArrayList<>();
+            for (EntryDescriptionProjection row : rows) {
+                terms.addAll(termsOf(userId, kind, row.getId(), row.getCategoryId(), row.getDescription()));
+                afterId = row.getId();
+            }
+            searchTermRepository.saveAll(terms);
+            counters[0] += rows.size();
+            counters[1] += terms.size();
+        } while (rows.size() == CategoryTotalsService.REBUILD_CHUNK_SIZE);
+    }
+
+    private List<EntrySearchResultResponse> loadResults(Long userId, EntryKind kind, Map<Long, Integer> scoresById, int limit,
+                                                        BiFunction<Long, List<Long>, List<EntryResponse>> loader) {
+        if (scoresById == null || scoresById.isEmpty()) {
+            return List.of();
+        }
+        // Só os melhores de cada tipo são carregados; o corte final acontece depois de juntar os dois
+        List<Long> topIds = scoresById.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.<Long, Integer>comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        return loader.apply(userId, topIds).stream()
+                .map(entry -> new EntrySearchResultResponse(kind.name(), scoresById.get(entry.getId()), entry))
+                .toList();
+    }
+
+    private static List<EntrySearchTerm> termsOf(Long userId, EntryKind kind, Long entryId, Long categoryId, String description) {
+        Set<String> tokens = SearchTokenizer.tokenize(description);
+        List<EntrySearchTerm> terms = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            terms.add(new EntrySearchTerm(userId, kind, entryId, categoryId, token));
+        }
+        return terms;
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limite da busca deve ser positivo.");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public record BackfillChunk(Long lastId, int entries, boolean done) {
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader {
+        List<EntryDescriptionProjection> read(Long userId, Long afterId, Pageable pageable);
+    }
+}
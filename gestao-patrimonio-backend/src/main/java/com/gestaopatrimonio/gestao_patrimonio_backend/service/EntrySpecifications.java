@@ -0,0 +1,161 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryFilterRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntrySearchTerm;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Critérios dinâmicos da listagem filtrada, comuns a ProfitEntry e ExpenseEntry (mesmos nomes de atributo).
+ * Cada filtro vira um predicado que algum índice atende:
+ * datas e cursor → (user_id, date, id); categorias → (user_id, category_id, date, id);
+ * valor → (user_id, amount, id); descrição → entry_search_terms (user_id, term, kind, entry_id) + chave primária.
+ */
+final class EntrySpecifications {
+
+    static final int MAX_CATEGORY_IDS = 50;
+
+    // Mesma ordem das listagens paginadas: o cursor (date, id) continua valendo
+    static final Sort PAGE_ORDER = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+
+    private EntrySpecifications() {
+    }
+
+    /** Monta a especificação completa a partir do filtro, validando intervalos e limites; position null = primeira página sem data final **/
+    static <T> Specification<T> of(Long userId, EntryKind kind, EntryFilterRequest filter, EntryCursor position) {
+        Specification<T> spec = EntrySpecifications.<T>withCategory().and(criteria(userId, kind, filter));
+        if (position != null) {
+            spec = spec.and(after(position));
+        }
+        return spec;
+    }
+
+    /**
+     * Mesmos filtros para UPDATE/DELETE em massa: sem fetch da categoria e sem cursor; a data final vira predicado
+     * (na listagem ela entra pelo cursor inicial). cursor e size do filtro são ignorados.
+     */
+    static <T> Specification<T> forBulk(Long userId, EntryKind kind, EntryFilterRequest filter) {
+        Specification<T> spec = criteria(userId, kind, filter);
+        if (filter.getTo() != null) {
+            spec = spec.and(datedUntil(filter.getTo()));
+        }
+        return spec;
+    }
+
+    /** Algum critério além do usuário: exclusão em massa sem filtro nenhum apagaria tudo **/
+    static boolean hasCriteria(EntryFilterRequest filter) {
+        return (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty())
+                || filter.getMinAmount() != null || filter.getMaxAmount() != null
+                || filter.getFrom() != null || filter.getTo() != null
+                || (filter.getQ() != null && !filter.getQ().isBlank());
+    }
+
+    private static <T> Specification<T> criteria(Long userId, EntryKind kind, EntryFilterRequest filter) {
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new IllegalArgumentException("Data inicial posterior à data final.");
+        }
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("Valor mínimo maior que o valor máximo.");
+        }
+        Set<Long> categoryIds = filter.getCategoryIds() != null ? new LinkedHashSet<>(filter.getCategoryIds()) : Set.of();
+        if (categoryIds.size() > MAX_CATEGORY_IDS) {
+            throw new IllegalArgumentException("No máximo " + MAX_CATEGORY_IDS + " categorias por filtro.");
+        }
+        List<String> descriptionTokens = filter.getQ() != null
+                ? SearchTokenizer.tokenize(filter.getQ()).stream().limit(EntrySearchService.MAX_QUERY_TOKENS).toList()
+                : List.of();
+        if (filter.getQ() != null && !filter.getQ().isBlank() && descriptionTokens.isEmpty()) {
+            throw new IllegalArgumentException("Filtro de descrição precisa de ao menos um termo com " + SearchTokenizer.MIN_TOKEN_LENGTH + " caracteres.");
+        }
+
+        // Consulta montada dinamicamente: filtro ausente não vira predicado, e o planejador escolhe o índice
+        // do filtro que realmente veio (um BETWEEN com limites sentinela igualaria todos os ranges)
+        Specification<T> spec = ofUser(userId);
+        if (filter.getFrom() != null) {
+            spec = spec.and(datedFrom(filter.getFrom()));
+        }
+        if (!categoryIds.isEmpty()) {
+            spec = spec.and(inCategories(categoryIds));
+        }
+        if (filter.getMinAmount() != null || filter.getMaxAmount() != null) {
+            spec = spec.and(amountBetween(filter.getMinAmount(), filter.getMaxAmount()));
+        }
+        for (String token : descriptionTokens) {
+            spec = spec.and(describedBy(userId, kind, token));
+        }
+        return spec;
+    }
+
+    /** Carrega a categoria no mesmo SELECT (associação lazy); ignorado na consulta de contagem **/
+    static <T> Specification<T> withCategory() {
+        return (root, query, cb) -> {
+            if (query != null && query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("category");
+            }
+            return null;
+        };
+    }
+
+    static <T> Specification<T> ofUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    static <T> Specification<T> datedFrom(LocalDate from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    static <T> Specification<T> datedUntil(LocalDate to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), to);
+    }
+
+    /** Keyset: depois de (date, id) na ordem (date DESC, id DESC); date <= cursor limita o range scan do índice **/
+    static <T> Specification<T> after(EntryCursor position) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("date"), position.date()),
+                cb.or(cb.lessThan(root.get("date"), position.date()), cb.lessThan(root.get("id"), position.id())));
+    }
+
+    static <T> Specification<T> inCategories(Collection<Long> categoryIds) {
+        return (root, query, cb) -> root.get("category").get("id").in(categoryIds);
+    }
+
+    static <T> Specification<T> amountBetween(BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> {
+            List<Predicate> bounds = new ArrayList<>(2);
+            if (min != null) {
+                bounds.add(cb.greaterThanOrEqualTo(root.get("amount"), min));
+            }
+            if (max != null) {
+                bounds.add(cb.lessThanOrEqualTo(root.get("amount"), max));
+            }
+            return cb.and(bounds.toArray(Predicate[]::new));
+        };
+    }
+
+    /** Termo da descrição por prefixo: id IN (range scan no índice invertido), nunca LIKE na tabela de lançamentos **/
+    static <T> Specification<T> describedBy(Long userId, EntryKind kind, String token) {
+        String upperBound = SearchTokenizer.prefixUpperBound(token);
+        return (root, query, cb) -> {
+            Subquery<Long> matches = query.subquery(Long.class);
+            Root<EntrySearchTerm> term = matches.from(EntrySearchTerm.class);
+            matches.select(term.get("entryId")).where(
+                    cb.equal(term.get("userId"), userId),
+                    cb.greaterThanOrEqualTo(term.get("term"), token),
+                    cb.lessThan(term.get("term"), upperBound),
+                    cb.equal(term.get("kind"), kind));
+            return root.get("id").in(matches);
+        };
+    }
+}
@@ -3,100 +3,229 @@ package com.gestaopatrimonio.gestao_patrimonio_backend.service;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
 import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
-import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
 import com.gestaopatrimonio.gestao_patrimonio_backend.repository.CategoryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.CentsByKeyAccumulator;
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.MoneyCents;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchItemResult;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryFilterRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.CategorySummaryResponse;
 
 @Service
 public class ExpenseEntryService {
 
     private final ExpenseEntryRepository expenseEntryRepository;
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
     private final CategoryRepository categoryRepository;
+    private final CategoryTotalsService categoryTotalsService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final EntrySearchService entrySearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
-    public ExpenseEntryService(ExpenseEntryRepository expenseEntryRepository, UserRepository userRepository, CategoryRepository categoryRepository) {
+    public ExpenseEntryService(ExpenseEntryRepository expenseEntryRepository, UserCacheService userCacheService, CategoryRepository categoryRepository, CategoryTotalsService categoryTotalsService, MonthlyRollupService monthlyRollupService, EntrySearchService entrySearchService, ApplicationEventPublisher eventPublisher, Validator validator) {
         this.expenseEntryRepository = expenseEntryRepository;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
         this.categoryRepository = categoryRepository;
+        this.categoryTotalsService = categoryTotalsService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.entrySearchService = entrySearchService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
     }
 
     @Transactional
     public ExpenseEntry createExpenseEntry(Long userId, Long categoryId, ExpenseEntry expenseEntry){
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-        Category category = categoryRepository.findById(categoryId)
+        // Usuário como referência (já autenticado) e categoria com a posse conferida no mesmo SELECT
+        User user = userCacheService.getReference(userId);
+        Category category = categoryRepository.findByIdAndUserId(categoryId, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com o ID: " + categoryId));
 
         expenseEntry.setUser(user);
         expenseEntry.setCategory(category);
-        return expenseEntryRepository.save(expenseEntry);
+        ExpenseEntry saved = expenseEntryRepository.save(expenseEntry);
+        categoryTotalsService.add(userId, categoryId, EntryKind.EXPENSE, saved.getAmount());
+        monthlyRollupService.add(userId, categoryId, EntryKind.EXPENSE, saved.getDate(), saved.getAmount());
+        entrySearchService.index(userId, EntryKind.EXPENSE, saved.getId(), categoryId, saved.getDescription());
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, saved.getDate()));
+        return saved;
     }
 
-    public Optional<ExpenseEntry> getExpenseEntryByIdAndUser(Long id, Long userId) {
-        return expenseEntryRepository.findById(id)
-                .filter(entry -> entry.getUser().getId().equals(userId));
+    /**
+     * Criação em lote: cada item é validado sozinho e volta com id ou erro. As categorias são checadas numa
+     * consulta só (por categoryId distinto) e os inserts saem em batches JDBC no flush.
+     */
+    @Transactional
+    public EntryBatchResponse createExpenseEntries(Long userId, List<EntryRequest> requests) {
+        EntryBatch.checkSize(requests);
+        User user = userCacheService.getReference(userId);
+        Set<Long> requestedCategoryIds = EntryBatch.distinctCategoryIds(requests);
+        Set<Long> ownedCategoryIds = requestedCategoryIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(categoryRepository.findIdsByUserIdAndIdIn(userId, requestedCategoryIds));
+
+        EntryBatchItemResult[] results = new EntryBatchItemResult[requests.size()];
+        List<ExpenseEntry> entries = new ArrayList<>(requests.size());
+        List<Integer> positions = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            EntryRequest request = requests.get(i);
+            String error = EntryBatch.validationError(validator, request);
+            if (error == null && !ownedCategoryIds.contains(request.getCategoryId())) {
+                error = "Categoria não encontrada com o ID: " + request.getCategoryId();
+            }
+            if (error != null) {
+                results[i] = EntryBatch.failure(i, error);
+                continue;
+            }
+            // Referência sem SELECT: a posse da categoria já foi confirmada acima
+            entries.add(new ExpenseEntry(request.getDescription(), request.getAmount(), request.getDate(),
+                    user, categoryRepository.getReferenceById(request.getCategoryId())));
+            positions.add(i);
+        }
+        if (entries.isEmpty()) {
+            return EntryBatch.report(results);
+        }
+
+        List<ExpenseEntry> saved = expenseEntryRepository.saveAll(entries);
+        CentsByKeyAccumulator byCategory = new CentsByKeyAccumulator(ownedCategoryIds.size());
+        CentsByKeyAccumulator byCategoryMonth = new CentsByKeyAccumulator(ownedCategoryIds.size() * 4);
+        LocalDate earliestDate = null;
+        for (int i = 0; i < saved.size(); i++) {
+            ExpenseEntry entry = saved.get(i);
+            Long categoryId = entry.getCategory().getId();
+            long cents = MoneyCents.toCents(entry.getAmount());
+            byCategory.add(categoryId, cents);
+            byCategoryMonth.add(MonthlyRollupService.rollupKey(categoryId, entry.getDate()), cents);
+            entrySearchService.index(userId, EntryKind.EXPENSE, entry.getId(), categoryId, entry.getDescription());
+            if (earliestDate == null || entry.getDate().isBefore(earliestDate)) {
+                earliestDate = entry.getDate();
+            }
+            results[positions.get(i)] = new EntryBatchItemResult(positions.get(i), entry.getId(), null);
+        }
+        categoryTotalsService.addBatch(userId, EntryKind.EXPENSE, byCategory);
+        monthlyRollupService.addBatch(userId, EntryKind.EXPENSE, byCategoryMonth);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, earliestDate));
+        return EntryBatch.report(results);
     }
 
-    public List<ExpenseEntry> getAllExpenseEntriesByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-        return expenseEntryRepository.findByUserOrderByDateDesc(user);
+    public Optional<EntryResponse> getExpenseEntryByIdAndUser(Long id, Long userId) {
+        return expenseEntryRepository.findResponseByIdAndUserId(id, userId);
+    }
+
+    public List<EntryResponse> getAllExpenseEntriesByUser(Long userId, LocalDate from, LocalDate to) {
+        return expenseEntryRepository.findResponsesByUser(userId, DateRanges.lowerBound(from), DateRanges.upperBound(to));
     }
 
     public List<CategorySummaryResponse> getExpensesSummaryByCategoryAndUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-
-        List<ExpenseEntry> userExpenses = expenseEntryRepository.findByUserOrderByDateDesc(user);
-
-        Map<Category, BigDecimal> expensesByCategoryMap = userExpenses.stream()
-                .collect(Collectors.groupingBy(
-                        ExpenseEntry::getCategory,
-                        Collectors.reducing(BigDecimal.ZERO, ExpenseEntry::getAmount, BigDecimal::add)
-                ));
-
-        return expensesByCategoryMap.entrySet().stream()
-                .map(entry -> new CategorySummaryResponse(
-                        entry.getKey().getId(),
-                        entry.getKey().getName(),
-                        entry.getKey().getType(),
-                        entry.getValue()
+        return categoryTotalsService.getSummary(userId, EntryKind.EXPENSE);
+    }
+
+    /** Resumo de um intervalo de datas: SUM agrupado servido pelo índice (user_id, date) **/
+    public List<CategorySummaryResponse> getExpensesSummaryByCategoryAndUser(Long userId, LocalDate from, LocalDate to) {
+        if (DateRanges.isUnbounded(from, to)) {
+            return getExpensesSummaryByCategoryAndUser(userId);
+        }
+        return expenseEntryRepository.sumAmountByCategoryForUserBetween(userId, DateRanges.lowerBound(from), DateRanges.upperBound(to)).stream()
+                .map(row -> new CategorySummaryResponse(
+                        row.getCategoryId(),
+                        row.getCategoryName(),
+                        row.getCategoryType(),
+                        row.getTotalAmount()
                 ))
                 .collect(Collectors.toList());
     }
 
-    public List<ExpenseEntry> getExpenseEntriesByCategoryIdAndUser(Long categoryId, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com o ID: " + categoryId));
+    public List<EntryResponse> getExpenseEntriesByCategoryIdAndUser(Long categoryId, Long userId, LocalDate from, LocalDate to) {
+        if (!categoryRepository.existsByIdAndUserId(categoryId, userId)) {
+            throw new IllegalArgumentException("Categoria não encontrada com o ID: " + categoryId);
+        }
+        return expenseEntryRepository.findResponsesByUserAndCategory(userId, categoryId, DateRanges.lowerBound(from), DateRanges.upperBound(to));
+    }
+
+    /** Página por cursor (date, id): o custo de qualquer página é o mesmo da primeira **/
+    public EntryPage<EntryResponse> getExpenseEntriesPageByUser(Long userId, LocalDate from, LocalDate to, String cursor, Integer size) {
+        int pageSize = EntryPage.resolveSize(size);
+        EntryCursor position = cursor != null ? EntryCursor.decode(cursor) : EntryCursor.start(DateRanges.upperBound(to));
+        List<EntryResponse> rows = expenseEntryRepository.findPageByUser(userId, DateRanges.lowerBound(from),
+                position.date(), position.id(), PageRequest.of(0, pageSize + 1));
+        return EntryPage.of(rows, pageSize, row -> new EntryCursor(row.getDate(), row.getId()));
+    }
 
-        return expenseEntryRepository.findByUserAndCategoryOrderByDateDesc(user, category);
+    public EntryPage<EntryResponse> getExpenseEntriesPageByCategoryIdAndUser(Long categoryId, Long userId, LocalDate from, LocalDate to, String cursor, Integer size) {
+        int pageSize = EntryPage.resolveSize(size);
+        EntryCursor position = cursor != null ? EntryCursor.decode(cursor) : EntryCursor.start(DateRanges.upperBound(to));
+        List<EntryResponse> rows = expenseEntryRepository.findPageByUserAndCategory(userId, categoryId, DateRanges.lowerBound(from),
+                position.date(), position.id(), PageRequest.of(0, pageSize + 1));
+        return EntryPage.of(rows, pageSize, row -> new EntryCursor(row.getDate(), row.getId()));
+    }
+
+    /** Listagem com filtros combináveis (categorias, valor, datas, descrição), paginada pelo mesmo cursor (date, id) **/
+    @Transactional(readOnly = true)
+    public EntryPage<EntryResponse> getExpenseEntriesFiltered(Long userId, EntryFilterRequest filter) {
+        int pageSize = EntryPage.resolveSize(filter.getSize());
+        EntryCursor position = filter.getCursor() != null
+                ? EntryCursor.decode(filter.getCursor())
+                : filter.getTo() != null ? EntryCursor.start(filter.getTo()) : null;
+        Specification<ExpenseEntry> spec = EntrySpecifications.of(userId, EntryKind.EXPENSE, filter, position);
+        List<EntryResponse> rows = expenseEntryRepository.findBy(spec, query -> query.sortBy(EntrySpecifications.PAGE_ORDER).limit(pageSize + 1).all())
+                .stream()
+                .map(entry -> new EntryResponse(
+                        entry.getId(),
+                        entry.getDescription(),
+                        entry.getAmount(),
+                        entry.getDate(),
+                        entry.getCategory().getId(),
+                        entry.getCategory().getName(),
+                        entry.getCategory().getType()
+                ))
+                .collect(Collectors.toList());
+        return EntryPage.of(rows, pageSize, row -> new EntryCursor(row.getDate(), row.getId()));
+    }
+
+    /** Entrega cada linha ao consumidor assim que sai do cursor; nada é acumulado em memória **/
+    @Transactional(readOnly = true)
+    public void streamExpenseEntries(Long userId, Long categoryId, LocalDate from, LocalDate to, Consumer<EntryResponse> sink) {
+        try (Stream<EntryResponse> rows = categoryId == null
+                ? expenseEntryRepository.streamByUser(userId, DateRanges.lowerBound(from), DateRanges.upperBound(to))
+                : expenseEntryRepository.streamByUserAndCategory(userId, categoryId, DateRanges.lowerBound(from), DateRanges.upperBound(to))) {
+            rows.forEach(sink);
+        }
     }
 
     @Transactional
     public ExpenseEntry updateExpenseEntry(Long id, Long userId, Long categoryId, ExpenseEntry updatedExpenseEntry) {
-        ExpenseEntry existingEntry = expenseEntryRepository.findById(id)
+        ExpenseEntry existingEntry = expenseEntryRepository.findWithCategoryByIdAndUserId(id, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Entrada de gasto não encontrada com o ID: " + id));
 
-        // CORREÇÃO: Usar 'existingEntry' aqui
-        if (!existingEntry.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("Entrada de gasto não pertence ao usuário.");
-        }
+        Long previousCategoryId = existingEntry.getCategory().getId();
+        BigDecimal previousAmount = existingEntry.getAmount();
+        LocalDate previousDate = existingEntry.getDate();
 
-        if (!existingEntry.getCategory().getId().equals(categoryId)) {
-            Category newCategory = categoryRepository.findById(categoryId)
+        if (!previousCategoryId.equals(categoryId)) {
+            Category newCategory = categoryRepository.findByIdAndUserId(categoryId, userId)
                     .orElseThrow(() -> new IllegalArgumentException("Nova categoria não encontrada com o ID: " + categoryId));
             existingEntry.setCategory(newCategory);
         }
@@ -105,17 +234,24 @@ public class ExpenseEntryService {
         existingEntry.setAmount(updatedExpenseEntry.getAmount());
         existingEntry.setDate(updatedExpenseEntry.getDate());
 
-        return expenseEntryRepository.save(existingEntry);
+        ExpenseEntry saved = expenseEntryRepository.save(existingEntry);
+        categoryTotalsService.replace(userId, EntryKind.EXPENSE, previousCategoryId, previousAmount, categoryId, saved.getAmount());
+        monthlyRollupService.replace(userId, EntryKind.EXPENSE, previousCategoryId, previousDate, previousAmount, categoryId, saved.getDate(), saved.getAmount());
+        entrySearchService.reindex(userId, EntryKind.EXPENSE, saved.getId(), categoryId, saved.getDescription());
+        LocalDate affectedFrom = previousDate.isBefore(saved.getDate()) ? previousDate : saved.getDate(); // Mudança de data afeta a partir da mais antiga
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, affectedFrom));
+        return saved;
     }
 
     @Transactional
     public void deleteExpenseEntry(Long id, Long userId) {
-        ExpenseEntry existingEntry = expenseEntryRepository.findById(id)
+        ExpenseEntry existingEntry = expenseEntryRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Entrada de gasto não encontrada com o ID: " + id));
-
-        if (!existingEntry.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("Entrada de gasto não pertence ao usuário.");
-        }
+        // Exclusão antes dos deltas, como nas demais escritas: uma linha agregada ausente é semeada já sem este lançamento
         expenseEntryRepository.delete(existingEntry);
+        categoryTotalsService.remove(userId, existingEntry.getCategory().getId(), EntryKind.EXPENSE, existingEntry.getAmount());
+        monthlyRollupService.remove(userId, existingEntry.getCategory().getId(), EntryKind.EXPENSE, existingEntry.getDate(), existingEntry.getAmount());
+        entrySearchService.remove(EntryKind.EXPENSE, existingEntry.getId());
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, existingEntry.getDate()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.MoneyCents;
+import com.gestaopatrimonio.gestao_patrimonio_backend.cache.BoundedTtlCache;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.CategorySummaryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.FinancialSummaryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import com.gestaopatrimonio.gestao_patrimonio_backend.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class FinancialSummaryService {
+
+    private final ProfitEntryService profitEntryService;
+    private final ExpenseEntryService expenseEntryService;
+    private final CategoryService categoryService;
+    private final BoundedTtlCache<Long, VersionedSummary> financialSummaryCache;
+
+    private final ThreadPoolExecutor queryExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration queryTimeout;
+
+    public FinancialSummaryService(ProfitEntryService profitEntryService, ExpenseEntryService expenseEntryService, CategoryService categoryService,
+                                   BoundedTtlCache<Long, VersionedSummary> financialSummaryCache,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${application.summary.executor.threads:8}") int threads,
+                                   @Value("${application.summary.executor.queue-capacity:100}") int queueCapacity,
+                                   @Value("${application.summary.query-timeout:PT5S}") Duration queryTimeout) {
+        this.profitEntryService = profitEntryService;
+        this.expenseEntryService = expenseEntryService;
+        this.categoryService = categoryService;
+        this.financialSummaryCache = financialSummaryCache;
+        this.queryTimeout = queryTimeout;
+
+        // Pool limitado e fila limitada: sob saturação a requisição falha rápido (503) em vez de enfileirar sem fim
+        this.queryExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("summary-query-"), new ThreadPoolExecutor.AbortPolicy());
+        this.queryExecutor.allowCoreThreadTimeOut(true);
+
+        // Cada consulta roda na sua própria transação somente leitura, com o prazo aplicado como timeout das queries
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, (queryTimeout.toMillis() + 999) / 1000));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        queryExecutor.shutdownNow();
+    }
+
+    /**
+     * Resumo na versão {@code dataVersion} (lida antes, a mesma da ETag). A entrada do cache guarda a versão em que
+     * foi carregada: entre o commit de uma escrita e a invalidação pós-commit, a versão nova já é visível e a entrada
+     * antiga não pode ser servida com ela.
+     */
+    public FinancialSummaryResponse getFinancialSummary(Long userId, long dataVersion) {
+        VersionedSummary cached = financialSummaryCache.get(userId,
+                id -> new VersionedSummary(dataVersion, loadFinancialSummary(id, null, null)));
+        if (cached.dataVersion() == dataVersion) {
+            return cached.summary();
+        }
+        VersionedSummary fresh = new VersionedSummary(dataVersion, loadFinancialSummary(userId, null, null));
+        // Só substitui uma entrada mais antiga: uma leitura atrasada não rebaixa o cache
+        if (cached.dataVersion() < dataVersion) {
+            financialSummaryCache.put(userId, fresh);
+        }
+        return fresh.summary();
+    }
+
+    /** Resumo restrito a um intervalo de datas; só o resumo sem filtro passa pelo cache **/
+    public FinancialSummaryResponse getFinancialSummary(Long userId, long dataVersion, LocalDate from, LocalDate to) {
+        if (DateRanges.isUnbounded(from, to)) {
+            return getFinancialSummary(userId, dataVersion);
+        }
+        return loadFinancialSummary(userId, from, to);
+    }
+
+    // Invalidação só depois do commit, para que uma leitura concorrente não volte a cachear o estado anterior
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        financialSummaryCache.invalidate(event.userId());
+    }
+
+    private FinancialSummaryResponse loadFinancialSummary(Long userId, LocalDate from, LocalDate to) {
+        // As três leituras são independentes: a latência fica próxima da consulta mais lenta, não da soma
+        List<Future<?>> submitted = new ArrayList<>(3);
+        Future<List<CategorySummaryResponse>> profitsQuery =
+                submit(submitted, () -> profitEntryService.getProfitsSummaryByCategoryAndUser(userId, from, to));
+        Future<List<CategorySummaryResponse>> expensesQuery =
+                submit(submitted, () -> expenseEntryService.getExpensesSummaryByCategoryAndUser(userId, from, to));
+        Future<List<CategoryResponse>> categoriesQuery =
+                submit(submitted, () -> categoryService.getAllCategoriesByUserId(userId));
+
+        // Um prazo único para as três: cada get espera só o que resta dele
+        long deadline = System.nanoTime() + queryTimeout.toNanos();
+        List<CategorySummaryResponse> profitsByCategory = await(profitsQuery, deadline, submitted);
+        List<CategorySummaryResponse> expensesByCategory = await(expensesQuery, deadline, submitted);
+        List<CategoryResponse> allCategories = await(categoriesQuery, deadline, submitted);
+
+        // Os totais saem das linhas por categoria (O(#categorias)), sem nova varredura dos lançamentos
+        long profitCents = sumCents(profitsByCategory);
+        long expenseCents = sumCents(expensesByCategory);
+
+        return new FinancialSummaryResponse(
+                MoneyCents.fromCents(profitCents),
+                MoneyCents.fromCents(expenseCents),
+                MoneyCents.fromCents(Math.subtractExact(profitCents, expenseCents)),
+                profitsByCategory,
+                expensesByCategory,
+                allCategories
+        );
+    }
+
+    // Future do próprio executor (não CompletableFuture): cancel(true) interrompe a thread e libera a vaga no pool
+    private <T> Future<T> submit(List<Future<?>> submitted, Supplier<T> query) {
+        try {
+            Future<T> future = queryExecutor.submit(() -> readOnlyTransaction.execute(status -> query.get()));
+            submitted.add(future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            cancelAll(submitted);
+            throw new ServiceUnavailableException("Resumo financeiro indisponível: pool de consultas saturado.", e);
+        }
+    }
+
+    private <T> T await(Future<T> query, long deadline, List<Future<?>> submitted) {
+        try {
+            return query.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancelAll(submitted);
+            throw new ServiceUnavailableException("Resumo financeiro excedeu o prazo de " + queryTimeout.toMillis() + " ms.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(submitted);
+            throw new ServiceUnavailableException("Resumo financeiro interrompido.", e);
+        } catch (ExecutionException e) {
+            cancelAll(submitted);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha ao montar o resumo financeiro.", e.getCause());
+        }
+    }
+
+    private static void cancelAll(List<Future<?>> queries) {
+        for (Future<?> query : queries) {
+            query.cancel(true);
+        }
+    }
+
+    private long sumCents(List<CategorySummaryResponse> rows) {
+        long total = 0L;
+        for (CategorySummaryResponse row : rows) {
+            total = MoneyCents.add(total, MoneyCents.toCents(row.getTotalAmount()));
+        }
+        return total;
+    }
+
+    /** Resumo guardado no cache com a versão dos dados em que foi carregado **/
+    public record VersionedSummary(long dataVersion, FinancialSummaryResponse summary) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gestaopatrimonio.gestao_patrimonio_backend.cache.BoundedTtlCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key nos POSTs de criação: a primeira requisição com a chave executa e a resposta fica guardada
+ * (LRU + TTL); repetições devolvem a mesma resposta sem executar o insert de novo.
+ *
+ * <p>Enquanto a primeira ainda executa, a chave fica reservada por um marcador fora do cache (que despeja por LRU):
+ * uma repetição concorrente recebe 409 em vez de correr em paralelo, mesmo com o cache sob pressão. A mesma chave com outro corpo recebe 422. Respostas 5xx (e exceções)
+ * liberam a chave, para que o cliente possa tentar de novo.</p>
+ *
+ * <p>Cada resposta guardada pesa o tamanho do seu corpo serializado: o cache é limitado também pela soma
+ * desses pesos, já que uma resposta de lote pode ter milhares de itens.</p>
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final BoundedTtlCache<String, StoredResponse> idempotencyCache;
+    private final ObjectMapper objectMapper;
+    // Chave → hash da requisição em execução; só cresce com as requisições simultâneas, nunca é despejado
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(BoundedTtlCache<String, StoredResponse> idempotencyCache, ObjectMapper objectMapper) {
+        this.idempotencyCache = idempotencyCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Executa {@code action} uma vez por (usuário, operação, chave). Sem chave, executa sempre.
+     * {@code operation} separa endpoints diferentes que recebam a mesma chave.
+     */
+    public <T> ResponseEntity<T> execute(Long userId, String operation, String idempotencyKey, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        String cacheKey = userId + ":" + operation + ":" + idempotencyKey;
+        String requestHash = hashOf(request);
+
+        StoredResponse existing = idempotencyCache.getIfPresent(cacheKey);
+        if (existing != null) {
+            return replay(existing, requestHash);
+        }
+        String running = inFlight.putIfAbsent(cacheKey, requestHash);
+        if (running != null) {
+            return ResponseEntity.status(running.equals(requestHash) ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+
+        try {
+            // A anterior pode ter terminado entre a consulta ao cache e a reserva
+            existing = idempotencyCache.getIfPresent(cacheKey);
+            if (existing != null) {
+                return replay(existing, requestHash);
+            }
+            ResponseEntity<T> response = action.get();
+            // Falha (exceção ou 5xx) não é guardada: o cliente pode repetir com a mesma chave
+            if (!response.getStatusCode().is5xxServerError()) {
+                idempotencyCache.put(cacheKey, new StoredResponse(requestHash, response, weightOf(cacheKey, response)));
+            }
+            return response;
+        } finally {
+            // Só depois de guardar a resposta: uma repetição vê o marcador ou a resposta, nunca nenhum dos dois
+            inFlight.remove(cacheKey);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> replay(StoredResponse existing, String requestHash) {
+        if (!existing.requestHash().equals(requestHash)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        ResponseEntity<?> original = existing.response();
+        return (ResponseEntity<T>) ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    // Estimativa pelo JSON do corpo, mais a chave e o hash guardados junto
+    private long weightOf(String cacheKey, ResponseEntity<?> response) {
+        long overhead = cacheKey.length() + 64L + StoredResponse.BASE_WEIGHT;
+        if (response.getBody() == null) {
+            return overhead;
+        }
+        try {
+            return overhead + objectMapper.writeValueAsBytes(response.getBody()).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a resposta para a chave de idempotência.", e);
+        }
+    }
+
+    private String hashOf(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a requisição para a chave de idempotência.", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+
+    /** Resposta guardada para a chave, com o hash da requisição que a gerou **/
+    public record StoredResponse(String requestHash, ResponseEntity<?> response, long weight) {
+
+        // Cabeçalhos, status e os próprios objetos do cache, por entrada
+        static final long BASE_WEIGHT = 512;
+    }
+}
@@ -1,51 +1,102 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.service;
 
+import com.gestaopatrimonio.gestao_patrimonio_backend.cache.BoundedTtlCache;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-// import io.jsonwebtoken.io.Decoders; // Não precisa mais importar Decoders
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.nio.charset.StandardCharsets; // IMPORT NECESSÁRIO
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Emissão e verificação de JWT. A chave HMAC e o parser são montados uma vez (o parser é imutável e
+ * thread-safe); cada token é verificado uma única vez por requisição em um {@link VerifiedToken}.
+ *
+ * <p>Tokens já verificados ficam num cache limitado, indexado pelo SHA-256 do token (o token em si não
+ * fica em memória), e valem até a própria expiração: uma repetição custa um hash em vez de HMAC + JSON.</p>
+ */
 @Service
 public class JwtService {
 
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    static final String USER_ID_CLAIM = "uid";
+    static final String TOKEN_VERSION_CLAIM = "ver";
 
-    @Value("${application.security.jwt.expiration}")
-    private Long jwtExpiration;
+    private final Long jwtExpiration;
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final BoundedTtlCache<String, VerifiedToken> verifiedTokenCache;
+
+    public JwtService(@Value("${application.security.jwt.secret-key}") String secretKey,
+                      @Value("${application.security.jwt.expiration}") Long jwtExpiration,
+                      BoundedTtlCache<String, VerifiedToken> verifiedTokenCache) {
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    /**
+     * Verifica assinatura e expiração. Lança {@link io.jsonwebtoken.JwtException} (ou IllegalArgumentException
+     * para token vazio) se o token não for válido.
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digestOf(token);
+        VerifiedToken cached = verifiedTokenCache.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return cached;
+        }
+        VerifiedToken verified = parse(token);
+        verifiedTokenCache.put(digest, verified);
+        return verified;
+    }
+
+    /** Verificação completa, sem passar pelo cache **/
+    public VerifiedToken parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            // Sem exp o token valeria para sempre (e ficaria no cache indefinidamente)
+            throw new ExpiredJwtException(null, claims, "Token sem data de expiração.");
+        }
+        return new VerifiedToken(
+                claims.getSubject(),
+                longClaim(claims, USER_ID_CLAIM),
+                longClaim(claims, TOKEN_VERSION_CLAIM),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant());
+    }
 
     public String extractUsername(String token){
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T>
             claimsResolver){
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return claimsResolver.apply(parser.parseClaimsJws(token).getBody());
     }
 
+    /** Para {@link User}, o token leva o id e a versão de token: a autenticação não precisa consultar o usuário **/
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(
@@ -58,24 +109,30 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /** Token já verificado: só compara o usuário e a expiração, sem novo parse **/
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.subject().equals(userDetails.getUsername()) && !token.isExpired(Instant.now());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static Long longClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        // O JSON devolve Integer ou Long conforme a magnitude
+        return value instanceof Number number ? number.longValue() : null;
     }
 
-    private Key getSignInKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    private static String digestOf(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição no extrato unificado, na ordem (date DESC, kind, id DESC). Opaco para o cliente (base64url).
+ */
+record LedgerCursor(LocalDate date, EntryKind kind, Long id) {
+
+    /**
+     * Traduz a posição global para a chave de busca (date, id) de um dos lados:
+     * lados que vêm depois de {@code kind} no mesmo dia entram inteiros (id sentinela máximo),
+     * lados que vêm antes já foram entregues naquele dia (id sentinela mínimo).
+     */
+    EntryCursor seekFor(EntryKind side) {
+        int order = Integer.compare(side.ordinal(), kind.ordinal());
+        if (order > 0) {
+            return new EntryCursor(date, Long.MAX_VALUE);
+        }
+        if (order < 0) {
+            return new EntryCursor(date, Long.MIN_VALUE);
+        }
+        return new EntryCursor(date, id);
+    }
+
+    String encode() {
+        String raw = date + ":" + kind + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static LedgerCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Cursor de extrato inválido.");
+            }
+            return new LedgerCursor(LocalDate.parse(parts[0]), EntryKind.valueOf(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de extrato inválido.", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.ledger.LedgerEntryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.ledger.LedgerPageResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ProfitEntryRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Extrato unificado: lucros e gastos intercalados por data. Cada lado é lido já ordenado pelo índice
+ * (user_id, date, id) a partir do cursor e limitado ao tamanho da página; o merge consome só o necessário.
+ */
+@Service
+public class LedgerService {
+
+    // Ordem global: data mais recente primeiro; no mesmo dia, lucros antes de gastos; depois id decrescente
+    private static final Comparator<LedgerEntryResponse> LEDGER_ORDER =
+            Comparator.comparing(LedgerEntryResponse::getDate).reversed()
+                    .thenComparing(entry -> EntryKind.valueOf(entry.getKind()))
+                    .thenComparing(Comparator.comparing(LedgerEntryResponse::getId).reversed());
+
+    private final ProfitEntryRepository profitEntryRepository;
+    private final ExpenseEntryRepository expenseEntryRepository;
+
+    public LedgerService(ProfitEntryRepository profitEntryRepository, ExpenseEntryRepository expenseEntryRepository) {
+        this.profitEntryRepository = profitEntryRepository;
+        this.expenseEntryRepository = expenseEntryRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public LedgerPageResponse getLedgerPage(Long userId, LocalDate from, LocalDate to, String cursor, Integer size) {
+        int pageSize = EntryPage.resolveSize(size);
+        LocalDate lowerBound = DateRanges.lowerBound(from);
+        LedgerCursor position = cursor != null
+                ? LedgerCursor.decode(cursor)
+                : new LedgerCursor(DateRanges.upperBound(to), EntryKind.values()[0], Long.MAX_VALUE);
+
+        // Nenhum lado pode contribuir com mais de pageSize + 1 linhas para esta página
+        PageRequest sideLimit = PageRequest.of(0, pageSize + 1);
+        EntryCursor profitSeek = position.seekFor(EntryKind.PROFIT);
+        EntryCursor expenseSeek = position.seekFor(EntryKind.EXPENSE);
+        List<Iterator<LedgerEntryResponse>> sides = List.of(
+                profitEntryRepository.findPageByUser(userId, lowerBound, profitSeek.date(), profitSeek.id(), sideLimit).stream()
+                        .map(row -> toLedgerEntry(EntryKind.PROFIT, row)).iterator(),
+                expenseEntryRepository.findPageByUser(userId, lowerBound, expenseSeek.date(), expenseSeek.id(), sideLimit).stream()
+                        .map(row -> toLedgerEntry(EntryKind.EXPENSE, row)).iterator()
+        );
+
+        List<LedgerEntryResponse> rows = merge(sides, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new LedgerPageResponse(rows, null);
+        }
+        List<LedgerEntryResponse> items = rows.subList(0, pageSize);
+        LedgerEntryResponse last = items.get(pageSize - 1);
+        return new LedgerPageResponse(items,
+                new LedgerCursor(last.getDate(), EntryKind.valueOf(last.getKind()), last.getId()).encode());
+    }
+
+    /** Merge k-way de fontes já ordenadas: a fila guarda só a cabeça de cada fonte **/
+    private static List<LedgerEntryResponse> merge(List<Iterator<LedgerEntryResponse>> sources, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(sources.size(), Comparator.comparing(Head::entry, LEDGER_ORDER));
+        for (Iterator<LedgerEntryResponse> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+        List<LedgerEntryResponse> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.entry());
+            if (head.source().hasNext()) {
+                heads.add(new Head(head.source().next(), head.source()));
+            }
+        }
+        return merged;
+    }
+
+    private static LedgerEntryResponse toLedgerEntry(EntryKind kind, EntryResponse row) {
+        return new LedgerEntryResponse(
+                kind.name(),
+                row.getId(),
+                row.getDescription(),
+                row.getAmount(),
+                kind == EntryKind.EXPENSE ? row.getAmount().negate() : row.getAmount(),
+                row.getDate(),
+                row.getCategory()
+        );
+    }
+
+    private record Head(LedgerEntryResponse entry, Iterator<LedgerEntryResponse> source) {
+    }
+}
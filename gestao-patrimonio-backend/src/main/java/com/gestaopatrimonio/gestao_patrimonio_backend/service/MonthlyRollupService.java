@@ -0,0 +1,225 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.CentsByKeyAccumulator;
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.MoneyCents;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.CategorySummaryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.TimeSeriesBucketResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.TimeSeriesGranularity;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.TimeSeriesResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.MonthlyRollup;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.MonthlyRollupRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ProfitEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.EntryAggregateProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.EntryAmountProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.RollupBucketProjection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantém a tabela monthly_rollups junto com as escritas de lançamento e responde às séries temporais
+ * (mensal/anual) a partir dela, sem varrer expense_entries/profit_entries.
+ */
+@Service
+public class MonthlyRollupService {
+
+    static final int REBUILD_CHUNK_SIZE = 1000;
+    private static final long MONTH_KEY_SPACE = 1_000_000L;
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final ProfitEntryRepository profitEntryRepository;
+    private final ExpenseEntryRepository expenseEntryRepository;
+    private final UserRepository userRepository;
+
+    public MonthlyRollupService(MonthlyRollupRepository monthlyRollupRepository, ProfitEntryRepository profitEntryRepository, ExpenseEntryRepository expenseEntryRepository,
+                                UserRepository userRepository) {
+        this.monthlyRollupRepository = monthlyRollupRepository;
+        this.profitEntryRepository = profitEntryRepository;
+        this.expenseEntryRepository = expenseEntryRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long userId, Long categoryId, EntryKind kind, LocalDate date, BigDecimal amount) {
+        apply(userId, categoryId, kind, MonthlyRollup.monthKeyOf(date), amount, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Long userId, Long categoryId, EntryKind kind, LocalDate date, BigDecimal amount) {
+        apply(userId, categoryId, kind, MonthlyRollup.monthKeyOf(date), amount.negate(), -1);
+    }
+
+    /** Criação em lote: um UPDATE por (categoria, mês); as chaves vêm de {@link #rollupKey(long, LocalDate)} **/
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addBatch(Long userId, EntryKind kind, CentsByKeyAccumulator byCategoryMonth) {
+        byCategoryMonth.forEach((key, cents, count) ->
+                apply(userId, key / MONTH_KEY_SPACE, kind, (int) (key % MONTH_KEY_SPACE), MoneyCents.fromCents(cents), count));
+    }
+
+    /** Exclusão ou troca de categoria em massa: o inverso de addBatch, com as mesmas chaves **/
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeBatch(Long userId, EntryKind kind, CentsByKeyAccumulator byCategoryMonth) {
+        byCategoryMonth.forEach((key, cents, count) ->
+                apply(userId, key / MONTH_KEY_SPACE, kind, (int) (key % MONTH_KEY_SPACE), MoneyCents.fromCents(cents).negate(), -count));
+    }
+
+    /** Atualização de lançamento: pode mudar categoria, valor e mês ao mesmo tempo. **/
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replace(Long userId, EntryKind kind,
+                        Long previousCategoryId, LocalDate previousDate, BigDecimal previousAmount,
+                        Long newCategoryId, LocalDate newDate, BigDecimal newAmount) {
+        int previousMonth = MonthlyRollup.monthKeyOf(previousDate);
+        int newMonth = MonthlyRollup.monthKeyOf(newDate);
+        if (previousCategoryId.equals(newCategoryId) && previousMonth == newMonth) {
+            if (previousAmount.compareTo(newAmount) != 0) {
+                apply(userId, newCategoryId, kind, newMonth, newAmount.subtract(previousAmount), 0);
+            }
+            return;
+        }
+        apply(userId, previousCategoryId, kind, previousMonth, previousAmount.negate(), -1);
+        apply(userId, newCategoryId, kind, newMonth, newAmount, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteForCategory(Long categoryId) {
+        monthlyRollupRepository.deleteByCategoryId(categoryId);
+    }
+
+    private void apply(Long userId, Long categoryId, EntryKind kind, int monthKey, BigDecimal amount, long count) {
+        if (monthlyRollupRepository.addToRollup(userId, categoryId, kind, monthKey, amount, count) == 0) {
+            seed(userId, categoryId, kind, monthKey, amount, count);
+        }
+    }
+
+    /**
+     * Linha ausente (mês com lançamentos anteriores a esta tabela, ou primeiro lançamento do mês): cria a linha a
+     * partir dos lançamentos do mês. Como em CategoryTotalsService, o delta chega depois da escrita e já está no recálculo.
+     */
+    private void seed(Long userId, Long categoryId, EntryKind kind, int monthKey, BigDecimal amount, long count) {
+        userRepository.findByIdForUpdate(userId);
+        if (monthlyRollupRepository.addToRollup(userId, categoryId, kind, monthKey, amount, count) > 0) {
+            return;
+        }
+        monthlyRollupRepository.flush();
+        LocalDate from = MonthlyRollup.firstDayOf(monthKey);
+        LocalDate to = from.plusMonths(1);
+        EntryAggregateProjection existing = kind == EntryKind.PROFIT
+                ? profitEntryRepository.aggregateByUserAndCategoryBetween(userId, categoryId, from, to)
+                : expenseEntryRepository.aggregateByUserAndCategoryBetween(userId, categoryId, from, to);
+        monthlyRollupRepository.save(new MonthlyRollup(userId, categoryId, kind, monthKey, existing.getTotalAmount(), existing.getEntryCount()));
+    }
+
+    @Transactional(readOnly = true)
+    public TimeSeriesResponse getTimeSeries(Long userId, TimeSeriesGranularity granularity, LocalDate from, LocalDate to, boolean splitByCategory) {
+        int fromMonth = from != null ? MonthlyRollup.monthKeyOf(from) : 0;
+        int toMonth = to != null ? MonthlyRollup.monthKeyOf(to) : 999912;
+
+        List<RollupBucketProjection> rows = granularity == TimeSeriesGranularity.YEAR
+                ? monthlyRollupRepository.sumByYear(userId, fromMonth, toMonth)
+                : monthlyRollupRepository.sumByMonth(userId, fromMonth, toMonth);
+
+        // As linhas já vêm ordenadas pelo balde; o LinkedHashMap preserva essa ordem
+        Map<Integer, BucketTotals> buckets = new LinkedHashMap<>();
+        for (RollupBucketProjection row : rows) {
+            BucketTotals bucket = buckets.computeIfAbsent(row.getBucket(), k -> new BucketTotals());
+            if (row.getKind() == EntryKind.PROFIT) {
+                bucket.profitCents = MoneyCents.add(bucket.profitCents, MoneyCents.toCents(row.getTotalAmount()));
+            } else {
+                bucket.expenseCents = MoneyCents.add(bucket.expenseCents, MoneyCents.toCents(row.getTotalAmount()));
+            }
+            if (splitByCategory) {
+                bucket.byCategory.add(new CategorySummaryResponse(
+                        row.getCategoryId(),
+                        row.getCategoryName(),
+                        row.getCategoryType(),
+                        row.getTotalAmount()
+                ));
+            }
+        }
+
+        List<TimeSeriesBucketResponse> response = new ArrayList<>(buckets.size());
+        for (Map.Entry<Integer, BucketTotals> entry : buckets.entrySet()) {
+            BucketTotals totals = entry.getValue();
+            response.add(new TimeSeriesBucketResponse(
+                    formatBucket(entry.getKey(), granularity),
+                    MoneyCents.fromCents(totals.profitCents),
+                    MoneyCents.fromCents(totals.expenseCents),
+                    MoneyCents.fromCents(Math.subtractExact(totals.profitCents, totals.expenseCents)),
+                    splitByCategory ? totals.byCategory : null
+            ));
+        }
+        return new TimeSeriesResponse(granularity.name().toLowerCase(), response);
+    }
+
+    /** Recria todos os agregados mensais do usuário a partir dos lançamentos, em blocos. **/
+    @Transactional
+    public void rebuild(Long userId) {
+        CentsByKeyAccumulator profits = new CentsByKeyAccumulator(256);
+        CentsByKeyAccumulator expenses = new CentsByKeyAccumulator(256);
+        scan(userId, profitEntryRepository::findAmountChunk, profits);
+        scan(userId, expenseEntryRepository::findAmountChunk, expenses);
+
+        monthlyRollupRepository.deleteByUserId(userId);
+        List<MonthlyRollup> rollups = new ArrayList<>(profits.size() + expenses.size());
+        collect(userId, EntryKind.PROFIT, profits, rollups);
+        collect(userId, EntryKind.EXPENSE, expenses, rollups);
+        monthlyRollupRepository.saveAll(rollups);
+    }
+
+    private void scan(Long userId, ChunkLoader loader, CentsByKeyAccumulator accumulator) {
+        Pageable chunk = PageRequest.of(0, REBUILD_CHUNK_SIZE);
+        long afterId = 0L;
+        List<EntryAmountProjection> rows;
+        do {
+            rows = loader.load(userId, afterId, chunk);
+            for (EntryAmountProjection row : rows) {
+                accumulator.add(rollupKey(row.getCategoryId(), MonthlyRollup.monthKeyOf(row.getDate())), MoneyCents.toCents(row.getAmount()));
+                afterId = row.getId();
+            }
+        } while (rows.size() == REBUILD_CHUNK_SIZE);
+    }
+
+    private static void collect(Long userId, EntryKind kind, CentsByKeyAccumulator accumulator, List<MonthlyRollup> rollups) {
+        accumulator.forEach((key, cents, count) -> rollups.add(new MonthlyRollup(
+                userId, key / MONTH_KEY_SPACE, kind, (int) (key % MONTH_KEY_SPACE), MoneyCents.fromCents(cents), count)));
+    }
+
+    // (categoria, mês) empacotados numa chave long: monthKey (yyyyMM) sempre cabe em MONTH_KEY_SPACE
+    private static long rollupKey(long categoryId, int monthKey) {
+        return categoryId * MONTH_KEY_SPACE + monthKey;
+    }
+
+    static long rollupKey(long categoryId, LocalDate date) {
+        return rollupKey(categoryId, MonthlyRollup.monthKeyOf(date));
+    }
+
+    private static String formatBucket(int bucket, TimeSeriesGranularity granularity) {
+        if (granularity == TimeSeriesGranularity.YEAR) {
+            return String.valueOf(bucket);
+        }
+        return String.format("%04d-%02d", bucket / 100, bucket % 100);
+    }
+
+    @FunctionalInterface
+    private interface ChunkLoader {
+        List<EntryAmountProjection> load(Long userId, Long afterId, Pageable pageable);
+    }
+
+    private static final class BucketTotals {
+        private long profitCents;
+        private long expenseCents;
+        private final List<CategorySummaryResponse> byCategory = new ArrayList<>();
+    }
+}
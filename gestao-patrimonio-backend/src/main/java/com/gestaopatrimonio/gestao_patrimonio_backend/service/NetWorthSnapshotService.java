@@ -0,0 +1,195 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.MoneyCents;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.NetWorthSnapshotResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.NetWorthSnapshot;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.NetWorthSnapshotRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ProfitEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.DailyAmountProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshots diários de patrimônio. Cada dia é o anterior mais as somas do próprio dia; uma escrita só marca
+ * a data mais antiga afetada (users.snapshots_dirty_from) e o recálculo refaz os dias a partir dela.
+ */
+@Service
+public class NetWorthSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetWorthSnapshotService.class);
+
+    private static final int USER_BATCH_SIZE = 500;
+
+    private final NetWorthSnapshotRepository snapshotRepository;
+    private final UserRepository userRepository;
+    private final ProfitEntryRepository profitEntryRepository;
+    private final ExpenseEntryRepository expenseEntryRepository;
+    private final TransactionTemplate reflowTransaction;
+
+    public NetWorthSnapshotService(NetWorthSnapshotRepository snapshotRepository, UserRepository userRepository,
+                                   ProfitEntryRepository profitEntryRepository, ExpenseEntryRepository expenseEntryRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.userRepository = userRepository;
+        this.profitEntryRepository = profitEntryRepository;
+        this.expenseEntryRepository = expenseEntryRepository;
+
+        // Transação própria por usuário: o job não segura um lock longo e uma falha não desfaz os demais
+        this.reflowTransaction = new TransactionTemplate(transactionManager);
+        this.reflowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Na mesma transação da escrita, como a versão dos dados: lançamento retroativo marca o recálculo a partir da sua data
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        if (event.affectedFrom() != null) {
+            userRepository.markSnapshotsDirtyFrom(event.userId(), event.affectedFrom());
+        }
+    }
+
+    /** Histórico diário; antes de ler, completa os dias que faltam até hoje e refaz os marcados como alterados **/
+    public List<NetWorthSnapshotResponse> getHistory(Long userId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        if (needsReflow(userId, today)) {
+            reflow(userId, today);
+        }
+        return snapshotRepository.findByUserIdAndSnapshotDateBetweenOrderBySnapshotDate(
+                        userId, DateRanges.lowerBound(from), to != null ? to : today).stream()
+                .map(snapshot -> new NetWorthSnapshotResponse(
+                        snapshot.getSnapshotDate(),
+                        snapshot.getDayProfits(),
+                        snapshot.getDayExpenses(),
+                        snapshot.getNetWorth()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    /** Job diário: leva os snapshots de todos os usuários até hoje, usuário a usuário **/
+    @Scheduled(cron = "${application.net-worth.snapshot-cron:0 5 0 * * *}")
+    public void recordDailySnapshots() {
+        LocalDate today = LocalDate.now();
+        int reflowed = 0;
+        Long afterId = 0L;
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, USER_BATCH_SIZE));
+            for (Long userId : userIds) {
+                try {
+                    reflow(userId, today);
+                    reflowed++;
+                } catch (RuntimeException e) {
+                    logger.warn("Net worth snapshot failed for user {}: {}", userId, e.getMessage());
+                }
+            }
+            if (!userIds.isEmpty()) {
+                afterId = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == USER_BATCH_SIZE);
+        logger.info("Net worth snapshots recorded up to {} for {} users", today, reflowed);
+    }
+
+    private boolean needsReflow(Long userId, LocalDate today) {
+        if (userRepository.findSnapshotsDirtyFromById(userId).isPresent()) {
+            return true;
+        }
+        return snapshotRepository.findTopByUserIdOrderBySnapshotDateDesc(userId)
+                .map(last -> last.getSnapshotDate().isBefore(today))
+                .orElse(true);
+    }
+
+    private void reflow(Long userId, LocalDate today) {
+        reflowTransaction.executeWithoutResult(status -> {
+            // Lock na linha do usuário: escritas concorrentes esperam para marcar a data, então a marca não se perde
+            User user = userRepository.findByIdForUpdate(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
+
+            LocalDate start = snapshotRepository.findTopByUserIdOrderBySnapshotDateDesc(userId)
+                    .map(last -> last.getSnapshotDate().plusDays(1))
+                    .orElse(null);
+            LocalDate dirtyFrom = user.getSnapshotsDirtyFrom();
+            if (dirtyFrom != null && (start == null || dirtyFrom.isBefore(start))) {
+                start = dirtyFrom;
+            }
+            if (start != null) {
+                snapshotRepository.deleteFrom(userId, start);
+            }
+
+            Optional<NetWorthSnapshot> previous = start != null
+                    ? snapshotRepository.findTopByUserIdAndSnapshotDateBeforeOrderBySnapshotDateDesc(userId, start)
+                    : Optional.empty();
+            if (previous.isEmpty()) {
+                // Sem snapshot anterior, a série começa no primeiro lançamento do usuário
+                LocalDate firstEntryDate = firstEntryDate(userId);
+                if (firstEntryDate == null) {
+                    userRepository.clearSnapshotsDirtyFrom(userId);
+                    return;
+                }
+                if (start == null || start.isBefore(firstEntryDate)) {
+                    start = firstEntryDate;
+                }
+            }
+            if (!start.isAfter(today)) {
+                long openingCents = previous.map(snapshot -> MoneyCents.toCents(snapshot.getNetWorth())).orElse(0L);
+                snapshotRepository.saveAll(buildSnapshots(userId, start, today, openingCents));
+            }
+            userRepository.clearSnapshotsDirtyFrom(userId);
+        });
+    }
+
+    private List<NetWorthSnapshot> buildSnapshots(Long userId, LocalDate from, LocalDate to, long openingCents) {
+        // Uma consulta agrupada por dia para cada tipo; os dias sem lançamento repetem o patrimônio anterior
+        List<DailyAmountProjection> profitDays = profitEntryRepository.sumAmountByDateForUserBetween(userId, from, to);
+        List<DailyAmountProjection> expenseDays = expenseEntryRepository.sumAmountByDateForUserBetween(userId, from, to);
+
+        List<NetWorthSnapshot> snapshots = new ArrayList<>();
+        long netWorthCents = openingCents;
+        int profitIndex = 0;
+        int expenseIndex = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long profitCents = 0L;
+            if (profitIndex < profitDays.size() && profitDays.get(profitIndex).getDate().equals(day)) {
+                profitCents = MoneyCents.toCents(profitDays.get(profitIndex++).getTotalAmount());
+            }
+            long expenseCents = 0L;
+            if (expenseIndex < expenseDays.size() && expenseDays.get(expenseIndex).getDate().equals(day)) {
+                expenseCents = MoneyCents.toCents(expenseDays.get(expenseIndex++).getTotalAmount());
+            }
+            netWorthCents = MoneyCents.add(netWorthCents, Math.subtractExact(profitCents, expenseCents));
+            snapshots.add(new NetWorthSnapshot(userId, day,
+                    MoneyCents.fromCents(profitCents),
+                    MoneyCents.fromCents(expenseCents),
+                    MoneyCents.fromCents(netWorthCents)));
+        }
+        return snapshots;
+    }
+
+    private LocalDate firstEntryDate(Long userId) {
+        LocalDate firstProfit = profitEntryRepository.findFirstDateByUserId(userId).orElse(null);
+        LocalDate firstExpense = expenseEntryRepository.findFirstDateByUserId(userId).orElse(null);
+        if (firstProfit == null) {
+            return firstExpense;
+        }
+        if (firstExpense == null) {
+            return firstProfit;
+        }
+        return firstProfit.isBefore(firstExpense) ? firstProfit : firstExpense;
+    }
+}
@@ -3,101 +3,231 @@ package com.gestaopatrimonio.gestao_patrimonio_backend.service;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.ProfitEntry;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
 import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
 import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ProfitEntryRepository;
-import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
 import com.gestaopatrimonio.gestao_patrimonio_backend.repository.CategoryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.CentsByKeyAccumulator;
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.MoneyCents;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchItemResult;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryFilterRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryResponse;
 import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.CategorySummaryResponse; // Import do DTO
 
 @Service
 public class ProfitEntryService {
 
     private final ProfitEntryRepository profitEntryRepository;
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
     private final CategoryRepository categoryRepository;
+    private final CategoryTotalsService categoryTotalsService;
+    private final MonthlyRollupService monthlyRollupService;
+    private final EntrySearchService entrySearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
-    public ProfitEntryService(ProfitEntryRepository profitEntryRepository, UserRepository userRepository, CategoryRepository categoryRepository) {
+    public ProfitEntryService(ProfitEntryRepository profitEntryRepository, UserCacheService userCacheService, CategoryRepository categoryRepository, CategoryTotalsService categoryTotalsService, MonthlyRollupService monthlyRollupService, EntrySearchService entrySearchService, ApplicationEventPublisher eventPublisher, Validator validator) {
         this.profitEntryRepository = profitEntryRepository;
-        this.userRepository = userRepository;
+        this.userCacheService = userCacheService;
         this.categoryRepository = categoryRepository;
+        this.categoryTotalsService = categoryTotalsService;
+        this.monthlyRollupService = monthlyRollupService;
+        this.entrySearchService = entrySearchService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
     }
 
     @Transactional
     public ProfitEntry createProfitEntry(Long userId, Long categoryId, ProfitEntry profitEntry){
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-        Category category = categoryRepository.findById(categoryId)
+        // Usuário como referência (já autenticado) e categoria com a posse conferida no mesmo SELECT
+        User user = userCacheService.getReference(userId);
+        Category category = categoryRepository.findByIdAndUserId(categoryId, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com o ID: " + categoryId));
 
         profitEntry.setUser(user);
         profitEntry.setCategory(category);
-        return profitEntryRepository.save(profitEntry);
+        ProfitEntry saved = profitEntryRepository.save(profitEntry);
+        categoryTotalsService.add(userId, categoryId, EntryKind.PROFIT, saved.getAmount());
+        monthlyRollupService.add(userId, categoryId, EntryKind.PROFIT, saved.getDate(), saved.getAmount());
+        entrySearchService.index(userId, EntryKind.PROFIT, saved.getId(), categoryId, saved.getDescription());
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, saved.getDate()));
+        return saved;
     }
 
-    public Optional<ProfitEntry> getProfitEntryByIdAndUser(Long id, Long userId) {
-        return profitEntryRepository.findById(id)
-                .filter(entry -> entry.getUser().getId().equals(userId));
+    /**
+     * Criação em lote: cada item é validado sozinho e volta com id ou erro. As categorias são checadas numa
+     * consulta só (por categoryId distinto) e os inserts saem em batches JDBC no flush.
+     */
+    @Transactional
+    public EntryBatchResponse createProfitEntries(Long userId, List<EntryRequest> requests) {
+        EntryBatch.checkSize(requests);
+        User user = userCacheService.getReference(userId);
+        Set<Long> requestedCategoryIds = EntryBatch.distinctCategoryIds(requests);
+        Set<Long> ownedCategoryIds = requestedCategoryIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(categoryRepository.findIdsByUserIdAndIdIn(userId, requestedCategoryIds));
+
+        EntryBatchItemResult[] results = new EntryBatchItemResult[requests.size()];
+        List<ProfitEntry> entries = new ArrayList<>(requests.size());
+        List<Integer> positions = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            EntryRequest request = requests.get(i);
+            String error = EntryBatch.validationError(validator, request);
+            if (error == null && !ownedCategoryIds.contains(request.getCategoryId())) {
+                error = "Categoria não encontrada com o ID: " + request.getCategoryId();
+            }
+            if (error != null) {
+                results[i] = EntryBatch.failure(i, error);
+                continue;
+            }
+            // Referência sem SELECT: a posse da categoria já foi confirmada acima
+            entries.add(new ProfitEntry(request.getDescription(), request.getAmount(), request.getDate(),
+                    user, categoryRepository.getReferenceById(request.getCategoryId())));
+            positions.add(i);
+        }
+        if (entries.isEmpty()) {
+            return EntryBatch.report(results);
+        }
+
+        List<ProfitEntry> saved = profitEntryRepository.saveAll(entries);
+        CentsByKeyAccumulator byCategory = new CentsByKeyAccumulator(ownedCategoryIds.size());
+        CentsByKeyAccumulator byCategoryMonth = new CentsByKeyAccumulator(ownedCategoryIds.size() * 4);
+        LocalDate earliestDate = null;
+        for (int i = 0; i < saved.size(); i++) {
+            ProfitEntry entry = saved.get(i);
+            Long categoryId = entry.getCategory().getId();
+            long cents = MoneyCents.toCents(entry.getAmount());
+            byCategory.add(categoryId, cents);
+            byCategoryMonth.add(MonthlyRollupService.rollupKey(categoryId, entry.getDate()), cents);
+            entrySearchService.index(userId, EntryKind.PROFIT, entry.getId(), categoryId, entry.getDescription());
+            if (earliestDate == null || entry.getDate().isBefore(earliestDate)) {
+                earliestDate = entry.getDate();
+            }
+            results[positions.get(i)] = new EntryBatchItemResult(positions.get(i), entry.getId(), null);
+        }
+        categoryTotalsService.addBatch(userId, EntryKind.PROFIT, byCategory);
+        monthlyRollupService.addBatch(userId, EntryKind.PROFIT, byCategoryMonth);
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, earliestDate));
+        return EntryBatch.report(results);
     }
 
-    public List<ProfitEntry> getAllProfitEntriesByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-        return profitEntryRepository.findByUserOrderByDateDesc(user);
+    public Optional<EntryResponse> getProfitEntryByIdAndUser(Long id, Long userId) {
+        return profitEntryRepository.findResponseByIdAndUserId(id, userId);
+    }
+
+    public List<EntryResponse> getAllProfitEntriesByUser(Long userId, LocalDate from, LocalDate to) {
+        return profitEntryRepository.findResponsesByUser(userId, DateRanges.lowerBound(from), DateRanges.upperBound(to));
     }
 
     public List<CategorySummaryResponse> getProfitsSummaryByCategoryAndUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-
-        List<ProfitEntry> userProfits = profitEntryRepository.findByUserOrderByDateDesc(user);
-
-        Map<Category, BigDecimal> profitsByCategoryMap = userProfits.stream()
-                .collect(Collectors.groupingBy(
-                        ProfitEntry::getCategory,
-                        Collectors.reducing(BigDecimal.ZERO, ProfitEntry::getAmount, BigDecimal::add)
-                ));
-
-        return profitsByCategoryMap.entrySet().stream()
-                .map(entry -> new CategorySummaryResponse(
-                        entry.getKey().getId(),
-                        entry.getKey().getName(),
-                        entry.getKey().getType(),
-                        entry.getValue()
+        return categoryTotalsService.getSummary(userId, EntryKind.PROFIT);
+    }
+
+    /** Resumo de um intervalo de datas: SUM agrupado servido pelo índice (user_id, date) **/
+    public List<CategorySummaryResponse> getProfitsSummaryByCategoryAndUser(Long userId, LocalDate from, LocalDate to) {
+        if (DateRanges.isUnbounded(from, to)) {
+            return getProfitsSummaryByCategoryAndUser(userId);
+        }
+        return profitEntryRepository.sumAmountByCategoryForUserBetween(userId, DateRanges.lowerBound(from), DateRanges.upperBound(to)).stream()
+                .map(row -> new CategorySummaryResponse(
+                        row.getCategoryId(),
+                        row.getCategoryName(),
+                        row.getCategoryType(),
+                        row.getTotalAmount()
                 ))
                 .collect(Collectors.toList());
     }
 
     /** NOVO MÉTODO: Obter lucros por ID de categoria e usuário **/
-    public List<ProfitEntry> getProfitEntriesByCategoryIdAndUser(Long categoryId, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado com o ID: " + userId));
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada com o ID: " + categoryId));
+    public List<EntryResponse> getProfitEntriesByCategoryIdAndUser(Long categoryId, Long userId, LocalDate from, LocalDate to) {
+        if (!categoryRepository.existsByIdAndUserId(categoryId, userId)) {
+            throw new IllegalArgumentException("Categoria não encontrada com o ID: " + categoryId);
+        }
+        return profitEntryRepository.findResponsesByUserAndCategory(userId, categoryId, DateRanges.lowerBound(from), DateRanges.upperBound(to));
+    }
+
+
+    /** Página por cursor (date, id): o custo de qualquer página é o mesmo da primeira **/
+    public EntryPage<EntryResponse> getProfitEntriesPageByUser(Long userId, LocalDate from, LocalDate to, String cursor, Integer size) {
+        int pageSize = EntryPage.resolveSize(size);
+        EntryCursor position = cursor != null ? EntryCursor.decode(cursor) : EntryCursor.start(DateRanges.upperBound(to));
+        List<EntryResponse> rows = profitEntryRepository.findPageByUser(userId, DateRanges.lowerBound(from),
+                position.date(), position.id(), PageRequest.of(0, pageSize + 1));
+        return EntryPage.of(rows, pageSize, row -> new EntryCursor(row.getDate(), row.getId()));
+    }
 
-        return profitEntryRepository.findByUserAndCategoryOrderByDateDesc(user, category);
+    public EntryPage<EntryResponse> getProfitEntriesPageByCategoryIdAndUser(Long categoryId, Long userId, LocalDate from, LocalDate to, String cursor, Integer size) {
+        int pageSize = EntryPage.resolveSize(size);
+        EntryCursor position = cursor != null ? EntryCursor.decode(cursor) : EntryCursor.start(DateRanges.upperBound(to));
+        List<EntryResponse> rows = profitEntryRepository.findPageByUserAndCategory(userId, categoryId, DateRanges.lowerBound(from),
+                position.date(), position.id(), PageRequest.of(0, pageSize + 1));
+        return EntryPage.of(rows, pageSize, row -> new EntryCursor(row.getDate(), row.getId()));
     }
 
+    /** Listagem com filtros combináveis (categorias, valor, datas, descrição), paginada pelo mesmo cursor (date, id) **/
+    @Transactional(readOnly = true)
+    public EntryPage<EntryResponse> getProfitEntriesFiltered(Long userId, EntryFilterRequest filter) {
+        int pageSize = EntryPage.resolveSize(filter.getSize());
+        EntryCursor position = filter.getCursor() != null
+                ? EntryCursor.decode(filter.getCursor())
+                : filter.getTo() != null ? EntryCursor.start(filter.getTo()) : null;
+        Specification<ProfitEntry> spec = EntrySpecifications.of(userId, EntryKind.PROFIT, filter, position);
+        List<EntryResponse> rows = profitEntryRepository.findBy(spec, query -> query.sortBy(EntrySpecifications.PAGE_ORDER).limit(pageSize + 1).all())
+                .stream()
+                .map(entry -> new EntryResponse(
+                        entry.getId(),
+                        entry.getDescription(),
+                        entry.getAmount(),
+                        entry.getDate(),
+                        entry.getCategory().getId(),
+                        entry.getCategory().getName(),
+                        entry.getCategory().getType()
+                ))
+                .collect(Collectors.toList());
+        return EntryPage.of(rows, pageSize, row -> new EntryCursor(row.getDate(), row.getId()));
+    }
+
+    /** Entrega cada linha ao consumidor assim que sai do cursor; nada é acumulado em memória **/
+    @Transactional(readOnly = true)
+    public void streamProfitEntries(Long userId, Long categoryId, LocalDate from, LocalDate to, Consumer<EntryResponse> sink) {
+        try (Stream<EntryResponse> rows = categoryId == null
+                ? profitEntryRepository.streamByUser(userId, DateRanges.lowerBound(from), DateRanges.upperBound(to))
+                : profitEntryRepository.streamByUserAndCategory(userId, categoryId, DateRanges.lowerBound(from), DateRanges.upperBound(to))) {
+            rows.forEach(sink);
+        }
+    }
 
     @Transactional
     public ProfitEntry updateProfitEntry(Long id, Long userId, Long categoryId, ProfitEntry updatedProfitEntry) {
-        ProfitEntry existingEntry = profitEntryRepository.findById(id)
+        ProfitEntry existingEntry = profitEntryRepository.findWithCategoryByIdAndUserId(id, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Entrada de lucro não encontrada com o ID: " + id));
 
-        if (!existingEntry.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("Entrada de lucro não pertence ao usuário.");
-        }
+        Long previousCategoryId = existingEntry.getCategory().getId();
+        BigDecimal previousAmount = existingEntry.getAmount();
+        LocalDate previousDate = existingEntry.getDate();
 
-        if (!existingEntry.getCategory().getId().equals(categoryId)) {
-            Category newCategory = categoryRepository.findById(categoryId)
+        if (!previousCategoryId.equals(categoryId)) {
+            Category newCategory = categoryRepository.findByIdAndUserId(categoryId, userId)
                     .orElseThrow(() -> new IllegalArgumentException("Nova categoria não encontrada com o ID: " + categoryId));
             existingEntry.setCategory(newCategory);
         }
@@ -106,17 +236,24 @@ public class ProfitEntryService {
         existingEntry.setAmount(updatedProfitEntry.getAmount());
         existingEntry.setDate(updatedProfitEntry.getDate());
 
-        return profitEntryRepository.save(existingEntry);
+        ProfitEntry saved = profitEntryRepository.save(existingEntry);
+        categoryTotalsService.replace(userId, EntryKind.PROFIT, previousCategoryId, previousAmount, categoryId, saved.getAmount());
+        monthlyRollupService.replace(userId, EntryKind.PROFIT, previousCategoryId, previousDate, previousAmount, categoryId, saved.getDate(), saved.getAmount());
+        entrySearchService.reindex(userId, EntryKind.PROFIT, saved.getId(), categoryId, saved.getDescription());
+        LocalDate affectedFrom = previousDate.isBefore(saved.getDate()) ? previousDate : saved.getDate(); // Mudança de data afeta a partir da mais antiga
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, affectedFrom));
+        return saved;
     }
 
     @Transactional
     public void deleteProfitEntry(Long id, Long userId) {
-        ProfitEntry existingEntry = profitEntryRepository.findById(id)
+        ProfitEntry existingEntry = profitEntryRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Entrada de lucro não encontrada com o ID: " + id));
-
-        if (!existingEntry.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("Entrada de lucro não pertence ao usuário.");
-        }
+        // Exclusão antes dos deltas, como nas demais escritas: uma linha agregada ausente é semeada já sem este lançamento
         profitEntryRepository.delete(existingEntry);
+        categoryTotalsService.remove(userId, existingEntry.getCategory().getId(), EntryKind.PROFIT, existingEntry.getAmount());
+        monthlyRollupService.remove(userId, existingEntry.getCategory().getId(), EntryKind.PROFIT, existingEntry.getDate(), existingEntry.getAmount());
+        entrySearchService.remove(EntryKind.PROFIT, existingEntry.getId());
+        eventPublisher.publishEvent(new FinancialDataChangedEvent(userId, existingEntry.getDate()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.statement.StatementImportResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.statement.StatementFormat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado de uma importação em andamento. Escrito só pela thread do job; lido pelas requisições de progresso.
+ */
+final class StatementImportJob {
+
+    enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private static final int MAX_ERROR_SAMPLES = 100;
+
+    private final String id;
+    private final Long userId;
+    private final StatementFormat format;
+    private final String fileName;
+    private final long totalBytes;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong uncategorized = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    StatementImportJob(String id, Long userId, StatementFormat format, String fileName, long totalBytes) {
+        this.id = id;
+        this.userId = userId;
+        this.format = format;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    String id() {
+        return id;
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    StatementFormat format() {
+        return format;
+    }
+
+    boolean isActive() {
+        return status == Status.QUEUED || status == Status.RUNNING;
+    }
+
+    boolean finishedBefore(Instant instant) {
+        Instant finished = finishedAt;
+        return finished != null && finished.isBefore(instant);
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(String failure) {
+        message = failure;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    void bytesRead(long total) {
+        bytesRead.set(total);
+    }
+
+    void lineRead() {
+        linesRead.incrementAndGet();
+    }
+
+    void imported(long count) {
+        imported.addAndGet(count);
+    }
+
+    void duplicate() {
+        duplicates.incrementAndGet();
+    }
+
+    void uncategorized(long position, String description) {
+        uncategorized.incrementAndGet();
+        sample("Linha " + position + ": nenhuma regra nem categoria padrão para \"" + description + "\".");
+    }
+
+    void failed(long position, String error) {
+        failed.incrementAndGet();
+        sample("Linha " + position + ": " + error);
+    }
+
+    private void sample(String error) {
+        synchronized (errors) {
+            if (errors.size() < MAX_ERROR_SAMPLES) {
+                errors.add(error);
+            }
+        }
+    }
+
+    StatementImportResponse toResponse() {
+        long read = bytesRead.get();
+        int percent = status == Status.COMPLETED ? 100 : totalBytes > 0 ? (int) Math.min(99, read * 100 / totalBytes) : 0;
+        List<String> errorSamples;
+        synchronized (errors) {
+            errorSamples = List.copyOf(errors);
+        }
+        return new StatementImportResponse(
+                id,
+                status.name(),
+                format.name(),
+                fileName,
+                totalBytes,
+                read,
+                percent,
+                linesRead.get(),
+                imported.get(),
+                duplicates.get(),
+                uncategorized.get(),
+                failed.get(),
+                errorSamples,
+                startedAt,
+                finishedAt,
+                message
+        );
+    }
+}
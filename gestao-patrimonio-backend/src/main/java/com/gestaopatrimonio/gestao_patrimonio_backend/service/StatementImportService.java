@@ -0,0 +1,401 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchItemResult;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryBatchResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.statement.StatementImportResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.exception.ServiceUnavailableException;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryFingerprint;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.ProfitEntry;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.CategoryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ProfitEntryRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.projection.FingerprintCountProjection;
+import com.gestaopatrimonio.gestao_patrimonio_backend.statement.StatementFormat;
+import com.gestaopatrimonio.gestao_patrimonio_backend.statement.StatementLine;
+import com.gestaopatrimonio.gestao_patrimonio_backend.statement.StatementParseException;
+import com.gestaopatrimonio.gestao_patrimonio_backend.statement.StatementReader;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de extratos (CSV/OFX) em segundo plano. O arquivo é lido em streaming e gravado em blocos de
+ * CHUNK_SIZE linhas, cada bloco na sua transação, pela mesma criação em lote dos endpoints /batch.
+ * Deduplicação por multiplicidade do fingerprint (data, valor, descrição): das N linhas iguais do arquivo, só as
+ * que passam das M que o usuário já tinha são gravadas; dois cafés iguais no mesmo dia continuam sendo dois.
+ */
+@Service
+public class StatementImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementImportService.class);
+
+    static final int CHUNK_SIZE = 1000;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private final ProfitEntryService profitEntryService;
+    private final ExpenseEntryService expenseEntryService;
+    private final ProfitEntryRepository profitEntryRepository;
+    private final ExpenseEntryRepository expenseEntryRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryRuleService categoryRuleService;
+    private final TransactionTemplate chunkTransaction;
+    private final ThreadPoolExecutor importExecutor;
+    private final Duration finishedJobRetention;
+    private final Map<String, StatementImportJob> jobs = new ConcurrentHashMap<>();
+
+    public StatementImportService(ProfitEntryService profitEntryService, ExpenseEntryService expenseEntryService,
+                                  ProfitEntryRepository profitEntryRepository, ExpenseEntryRepository expenseEntryRepository,
+                                  CategoryRepository categoryRepository, CategoryRuleService categoryRuleService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${application.import.executor.threads:2}") int threads,
+                                  @Value("${application.import.executor.queue-capacity:10}") int queueCapacity,
+                                  @Value("${application.import.finished-job-retention:PT1H}") Duration finishedJobRetention) {
+        this.profitEntryService = profitEntryService;
+        this.expenseEntryService = expenseEntryService;
+        this.profitEntryRepository = profitEntryRepository;
+        this.expenseEntryRepository = expenseEntryRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryRuleService = categoryRuleService;
+        this.finishedJobRetention = finishedJobRetention;
+
+        // Uma transação por bloco: um arquivo grande nunca vira uma transação gigante, e uma falha só desfaz o bloco atual
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+
+        // Importações são longas e pesadas no banco: poucas threads, fila curta, e 503 quando lotar
+        this.importExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("statement-import-"), new ThreadPoolExecutor.AbortPolicy());
+        this.importExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    /** Copia o upload para um arquivo temporário próprio (o do multipart some com a requisição) e enfileira o job **/
+    public StatementImportResponse submit(Long userId, MultipartFile file, StatementFormat format, String charsetName,
+                                          Long defaultExpenseCategoryId, Long defaultProfitCategoryId) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo de extrato vazio.");
+        }
+        StatementFormat resolvedFormat = format != null
+                ? format
+                : StatementFormat.fromFileName(file.getOriginalFilename())
+                        .orElseThrow(() -> new IllegalArgumentException("Formato não informado e não reconhecido pela extensão (.csv, .ofx)."));
+        Charset charset = charsetName != null ? Charset.forName(charsetName) : StandardCharsets.UTF_8;
+        checkDefaultCategories(userId, defaultExpenseCategoryId, defaultProfitCategoryId);
+
+        StatementImportJob job = register(userId, resolvedFormat, file);
+        Path copy;
+        try {
+            copy = Files.createTempFile("statement-import-", ".tmp");
+            file.transferTo(copy);
+        } catch (IOException e) {
+            jobs.remove(job.id());
+            throw e;
+        }
+        try {
+            importExecutor.execute(() -> run(job, copy, charset, defaultExpenseCategoryId, defaultProfitCategoryId));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            Files.deleteIfExists(copy);
+            throw new ServiceUnavailableException("Importação indisponível: fila de importações cheia.", e);
+        }
+        return job.toResponse();
+    }
+
+    public Optional<StatementImportResponse> getJob(Long userId, String jobId) {
+        StatementImportJob job = jobs.get(jobId);
+        if (job == null || !job.userId().equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toResponse());
+    }
+
+    private StatementImportJob register(Long userId, StatementFormat format, MultipartFile file) {
+        Instant cutoff = Instant.now().minus(finishedJobRetention);
+        jobs.values().removeIf(existing -> existing.finishedBefore(cutoff));
+        // Uma importação ativa por usuário: duas em paralelo só disputariam as mesmas linhas de totais e duplicatas
+        synchronized (jobs) {
+            boolean active = jobs.values().stream().anyMatch(existing -> existing.userId().equals(userId) && existing.isActive());
+            if (active) {
+                throw new IllegalStateException("Já existe uma importação em andamento para este usuário.");
+            }
+            StatementImportJob job = new StatementImportJob(UUID.randomUUID().toString(), userId, format, file.getOriginalFilename(), file.getSize());
+            jobs.put(job.id(), job);
+            return job;
+        }
+    }
+
+    private void checkDefaultCategories(Long userId, Long defaultExpenseCategoryId, Long defaultProfitCategoryId) {
+        Set<Long> requested = new HashSet<>();
+        if (defaultExpenseCategoryId != null) {
+            requested.add(defaultExpenseCategoryId);
+        }
+        if (defaultProfitCategoryId != null) {
+            requested.add(defaultProfitCategoryId);
+        }
+        if (!requested.isEmpty() && categoryRepository.findIdsByUserIdAndIdIn(userId, requested).size() != requested.size()) {
+            throw new IllegalArgumentException("Categoria padrão não encontrada.");
+        }
+    }
+
+    private void run(StatementImportJob job, Path file, Charset charset, Long defaultExpenseCategoryId, Long defaultProfitCategoryId) {
+        job.start();
+        try {
+            backfillFingerprints(job.userId(), profitEntryRepository::findWithoutFingerprintChunk, ProfitEntry::getId, ProfitEntry::refreshFingerprint);
+            backfillFingerprints(job.userId(), expenseEntryRepository::findWithoutFingerprintChunk, ExpenseEntry::getId, ExpenseEntry::refreshFingerprint);
+            CategoryRuleService.RuleMatcher rules = categoryRuleService.matcherFor(job.userId());
+            Map<EntryKind, FingerprintTally> tallies = Map.of(EntryKind.PROFIT, new FingerprintTally(), EntryKind.EXPENSE, new FingerprintTally());
+
+            try (CountingInputStream input = new CountingInputStream(Files.newInputStream(file));
+                 StatementReader reader = job.format().open(new InputStreamReader(input, charset))) {
+                List<PendingLine> chunk = new ArrayList<>(CHUNK_SIZE);
+                while (true) {
+                    StatementLine line;
+                    try {
+                        line = reader.next();
+                    } catch (StatementParseException e) {
+                        job.lineRead();
+                        job.failed(e.getPosition(), e.getMessage());
+                        continue;
+                    }
+                    if (line == null) {
+                        break;
+                    }
+                    job.lineRead();
+                    PendingLine pending = categorize(job, line, rules, defaultExpenseCategoryId, defaultProfitCategoryId);
+                    if (pending != null) {
+                        chunk.add(pending);
+                    }
+                    if (chunk.size() == CHUNK_SIZE) {
+                        commitChunk(job, chunk, tallies);
+                        chunk.clear();
+                    }
+                    job.bytesRead(input.count());
+                }
+                if (!chunk.isEmpty()) {
+                    commitChunk(job, chunk, tallies);
+                }
+                job.bytesRead(input.count());
+            }
+            job.complete();
+            logger.info("Statement import {} completed: {}", job.id(), job.toResponse());
+        } catch (IOException | RuntimeException e) {
+            job.fail(e.getMessage());
+            logger.warn("Statement import {} failed: {}", job.id(), e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete statement import file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private PendingLine categorize(StatementImportJob job, StatementLine line, CategoryRuleService.RuleMatcher rules,
+                                   Long defaultExpenseCategoryId, Long defaultProfitCategoryId) {
+        if (line.amount().signum() == 0) {
+            job.failed(line.position(), "Valor zero.");
+            return null;
+        }
+        EntryKind kind = line.amount().signum() < 0 ? EntryKind.EXPENSE : EntryKind.PROFIT;
+        String description = line.description().length() > MAX_DESCRIPTION_LENGTH
+                ? line.description().substring(0, MAX_DESCRIPTION_LENGTH)
+                : line.description();
+        Long categoryId = rules.categoryFor(description, kind);
+        if (categoryId == null) {
+            categoryId = kind == EntryKind.EXPENSE ? defaultExpenseCategoryId : defaultProfitCategoryId;
+        }
+        if (categoryId == null) {
+            job.uncategorized(line.position(), description);
+            return null;
+        }
+        BigDecimal amount = line.amount().abs();
+        EntryRequest request = new EntryRequest();
+        request.setDescription(description);
+        request.setAmount(amount);
+        request.setDate(line.date());
+        request.setCategoryId(categoryId);
+        String fingerprint = description.isBlank() ? null : EntryFingerprint.of(line.date(), amount, description);
+        return new PendingLine(line.position(), kind, request, fingerprint);
+    }
+
+    private void commitChunk(StatementImportJob job, List<PendingLine> chunk, Map<EntryKind, FingerprintTally> tallies) {
+        chunkTransaction.executeWithoutResult(status -> {
+            importKind(job, chunk, EntryKind.PROFIT, tallies.get(EntryKind.PROFIT), profitEntryRepository::countFingerprintsByUserIn,
+                    requests -> profitEntryService.createProfitEntries(job.userId(), requests));
+            importKind(job, chunk, EntryKind.EXPENSE, tallies.get(EntryKind.EXPENSE), expenseEntryRepository::countFingerprintsByUserIn,
+                    requests -> expenseEntryService.createExpenseEntries(job.userId(), requests));
+        });
+    }
+
+    private void importKind(StatementImportJob job, List<PendingLine> chunk, EntryKind kind, FingerprintTally tally,
+                            BiFunction<Long, Collection<String>, List<FingerprintCountProjection>> existingFingerprints,
+                            Function<List<EntryRequest>, EntryBatchResponse> createBatch) {
+        List<PendingLine> lines = chunk.stream().filter(line -> line.kind() == kind).toList();
+        if (lines.isEmpty()) {
+            return;
+        }
+        Set<String> fingerprints = lines.stream()
+                .map(PendingLine::fingerprint)
+                .filter(fingerprint -> fingerprint != null)
+                .collect(Collectors.toSet());
+        // Uma consulta por bloco no índice (user_id, fingerprint); blocos anteriores já estão gravados e entram na contagem
+        Map<String, Long> stored = fingerprints.isEmpty() ? Map.of() : existingFingerprints.apply(job.userId(), fingerprints).stream()
+                .collect(Collectors.toMap(FingerprintCountProjection::getFingerprint, FingerprintCountProjection::getEntryCount));
+
+        List<PendingLine> accepted = new ArrayList<>(lines.size());
+        for (PendingLine line : lines) {
+            String fingerprint = line.fingerprint();
+            if (fingerprint != null) {
+                // Só as ocorrências que já existiam antes deste arquivo; as gravadas por blocos anteriores dele não contam
+                long preexisting = stored.getOrDefault(fingerprint, 0L) - tally.importedFromFile(fingerprint);
+                if (tally.nextOccurrence(fingerprint) <= preexisting) {
+                    job.duplicate();
+                    continue;
+                }
+            }
+            accepted.add(line);
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        EntryBatchResponse report = createBatch.apply(accepted.stream().map(PendingLine::request).toList());
+        job.imported(report.getCreated());
+        for (EntryBatchItemResult item : report.getItems()) {
+            PendingLine line = accepted.get(item.getIndex());
+            if (item.getError() != null) {
+                job.failed(line.position(), item.getError());
+            } else if (line.fingerprint() != null) {
+                tally.imported(line.fingerprint());
+            }
+        }
+    }
+
+    /** Preenche o fingerprint de lançamentos anteriores à coluna, para que a deduplicação os enxergue **/
+    private <T> void backfillFingerprints(Long userId, FingerprintChunkLoader<T> loader, Function<T, Long> idOf, Consumer<T> refresh) {
+        Pageable chunk = PageRequest.of(0, CHUNK_SIZE);
+        Long afterId = 0L;
+        List<T> rows;
+        do {
+            Long from = afterId;
+            rows = chunkTransaction.execute(status -> {
+                List<T> loaded = loader.load(userId, from, chunk);
+                loaded.forEach(refresh);
+                return loaded;
+            });
+            if (!rows.isEmpty()) {
+                afterId = idOf.apply(rows.get(rows.size() - 1));
+            }
+        } while (rows.size() == CHUNK_SIZE);
+    }
+
+    @FunctionalInterface
+    private interface FingerprintChunkLoader<T> {
+        List<T> load(Long userId, Long afterId, Pageable pageable);
+    }
+
+    private record PendingLine(long position, EntryKind kind, EntryRequest request, String fingerprint) {
+    }
+
+    /** Ocorrências de cada fingerprint lidas até agora neste arquivo, e quantas delas o arquivo já gravou **/
+    private static final class FingerprintTally {
+
+        private final Map<String, Integer> seenInFile = new HashMap<>();
+        private final Map<String, Integer> importedFromFile = new HashMap<>();
+
+        /** Ordem (1, 2, ...) desta ocorrência no arquivo **/
+        int nextOccurrence(String fingerprint) {
+            return seenInFile.merge(fingerprint, 1, Integer::sum);
+        }
+
+        int importedFromFile(String fingerprint) {
+            return importedFromFile.getOrDefault(fingerprint, 0);
+        }
+
+        void imported(String fingerprint) {
+            importedFromFile.merge(fingerprint, 1, Integer::sum);
+        }
+    }
+
+    /** Conta os bytes já consumidos do arquivo, para o progresso **/
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
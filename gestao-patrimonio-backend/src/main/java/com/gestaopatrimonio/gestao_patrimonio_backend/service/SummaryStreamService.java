@@ -0,0 +1,164 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.summary.FinancialSummaryResponse;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.FinancialDataChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conexões SSE abertas em /api/summary/stream, agrupadas por usuário.
+ * O SseEmitter usa o suporte assíncrono do servlet: a thread do Tomcat é liberada assim que o handler retorna,
+ * então uma conexão ociosa custa só o registro aqui e o socket.
+ */
+@Service
+public class SummaryStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryStreamService.class);
+
+    private final FinancialSummaryService financialSummaryService;
+    private final DataVersionService dataVersionService;
+    private final Duration streamTimeout;
+
+    private final Map<Long, Set<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+    // Usuários com envio já agendado: várias escritas seguidas geram um único envio
+    private final Set<Long> pendingPushes = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor pushExecutor;
+
+    public SummaryStreamService(FinancialSummaryService financialSummaryService, DataVersionService dataVersionService,
+                                MeterRegistry meterRegistry,
+                                @Value("${application.summary.stream.timeout:PT30M}") Duration streamTimeout,
+                                @Value("${application.summary.stream.push-threads:2}") int pushThreads,
+                                @Value("${application.summary.stream.push-queue-capacity:1000}") int pushQueueCapacity) {
+        this.financialSummaryService = financialSummaryService;
+        this.dataVersionService = dataVersionService;
+        this.streamTimeout = streamTimeout;
+
+        this.pushExecutor = new ThreadPoolExecutor(pushThreads, pushThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(pushQueueCapacity), new CustomizableThreadFactory("summary-push-"), new ThreadPoolExecutor.AbortPolicy());
+        this.pushExecutor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("summary.stream.connections", this, SummaryStreamService::connectionCount)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pushExecutor.shutdownNow();
+        emittersByUser.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        emittersByUser.clear();
+    }
+
+    /** Abre um stream para o usuário e já envia o resumo atual, para o cliente não precisar de um GET inicial **/
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        emittersByUser.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(emitter);
+        emitter.onCompletion(() -> unregister(userId, emitter));
+        emitter.onTimeout(() -> unregister(userId, emitter));
+        emitter.onError(error -> unregister(userId, emitter));
+
+        // Registra antes de ler: uma escrita concorrente ao primeiro envio ainda gera um push para esta conexão
+        try {
+            long version = dataVersionService.getDataVersion(userId);
+            send(userId, emitter, version, financialSummaryService.getFinancialSummary(userId, version));
+        } catch (RuntimeException e) {
+            unregister(userId, emitter);
+            throw e;
+        }
+        return emitter;
+    }
+
+    // Roda depois da invalidação do cache do resumo (HIGHEST_PRECEDENCE), para o envio já ler o estado novo
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFinancialDataChanged(FinancialDataChangedEvent event) {
+        Long userId = event.userId();
+        if (!emittersByUser.containsKey(userId) || !pendingPushes.add(userId)) {
+            return;
+        }
+        try {
+            pushExecutor.execute(() -> push(userId));
+        } catch (RejectedExecutionException e) {
+            pendingPushes.remove(userId);
+            logger.warn("Summary push dropped for user {}: push queue is full", userId);
+        }
+    }
+
+    /** Comentário SSE periódico: mantém proxies sem cortar a conexão e descobre clientes que já caíram **/
+    @Scheduled(fixedDelayString = "${application.summary.stream.heartbeat:PT30S}")
+    public void sendHeartbeats() {
+        emittersByUser.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                } catch (IOException | IllegalStateException e) {
+                    unregister(userId, emitter);
+                }
+            }
+        });
+    }
+
+    public int connectionCount() {
+        return emittersByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void push(Long userId) {
+        // Sai do conjunto antes de ler: uma escrita que chegue durante a leitura agenda um novo envio
+        pendingPushes.remove(userId);
+        Set<SseEmitter> emitters = emittersByUser.get(userId);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        try {
+            long version = dataVersionService.getDataVersion(userId);
+            FinancialSummaryResponse summary = financialSummaryService.getFinancialSummary(userId, version);
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, version, summary);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Summary push failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, long version, FinancialSummaryResponse summary) {
+        try {
+            // O id do evento é a versão dos dados, a mesma usada na ETag de /api/summary
+            emitter.send(SseEmitter.event()
+                    .name("summary")
+                    .id(Long.toString(version))
+                    .data(summary, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            unregister(userId, emitter);
+        }
+    }
+
+    private void unregister(Long userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
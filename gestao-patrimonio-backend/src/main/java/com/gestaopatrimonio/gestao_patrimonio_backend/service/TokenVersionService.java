@@ -0,0 +1,53 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.cache.BoundedTtlCache;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.TokensRevokedEvent;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Versão de token por usuário (claim "ver" do JWT), servida de memória: a autenticação de uma requisição
+ * não vai ao banco enquanto a versão do usuário estiver no cache.
+ *
+ * <p>Revogar incrementa a versão e invalida a entrada local depois do commit. Em outras instâncias a
+ * versão antiga vale até o TTL do cache (application.security.jwt.token-version-cache.ttl).</p>
+ */
+@Service
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final BoundedTtlCache<Long, Long> tokenVersionCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TokenVersionService(UserRepository userRepository, BoundedTtlCache<Long, Long> tokenVersionCache,
+                               ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.tokenVersionCache = tokenVersionCache;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /** true se o token carrega a versão vigente do usuário; usuário inexistente nunca é vigente **/
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long current = tokenVersionCache.get(userId, id -> userRepository.findTokenVersionById(id).orElse(null));
+        return current != null && current == tokenVersion;
+    }
+
+    /** Revoga todos os tokens já emitidos para o usuário **/
+    @Transactional
+    public void revokeAll(Long userId) {
+        if (userRepository.bumpTokenVersion(userId) == 0) {
+            throw new IllegalArgumentException("Usuário não encontrado com o ID: " + userId);
+        }
+        eventPublisher.publishEvent(new TokensRevokedEvent(userId));
+    }
+
+    // Só depois do commit: uma autenticação concorrente não volta a cachear a versão anterior
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        tokenVersionCache.invalidate(event.userId());
+    }
+}
@@ -0,0 +1,76 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.cache.BoundedTtlCache;
+import com.gestaopatrimonio.gestao_patrimonio_backend.config.security.AuthenticatedUserContext;
+import com.gestaopatrimonio.gestao_patrimonio_backend.event.TokensRevokedEvent;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.UserSnapshot;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Consultas de usuário servidas de um cache limitado (LRU + TTL) de {@link UserSnapshot}s imutáveis:
+ * login e checagens de existência não vão à tabela users enquanto o snapshot estiver vigente.
+ *
+ * <p>Usuário inexistente não é cacheado. Toda escrita em users que mude um campo do snapshot
+ * (senha, versão de token) precisa chamar {@link #invalidate(Long, String)} depois do commit.</p>
+ */
+@Service
+public class UserCacheService {
+
+    private final UserRepository userRepository;
+    private final BoundedTtlCache<Long, UserSnapshot> userSnapshotCache;
+    private final BoundedTtlCache<String, Long> userIdByUsernameCache;
+    private final AuthenticatedUserContext authenticatedUserContext;
+
+    public UserCacheService(UserRepository userRepository, BoundedTtlCache<Long, UserSnapshot> userSnapshotCache,
+                            BoundedTtlCache<String, Long> userIdByUsernameCache, AuthenticatedUserContext authenticatedUserContext) {
+        this.userRepository = userRepository;
+        this.userSnapshotCache = userSnapshotCache;
+        this.userIdByUsernameCache = userIdByUsernameCache;
+        this.authenticatedUserContext = authenticatedUserContext;
+    }
+
+    public Optional<UserSnapshot> findById(Long userId) {
+        return Optional.ofNullable(userSnapshotCache.get(userId, id -> userRepository.findById(id).map(UserSnapshot::of).orElse(null)));
+    }
+
+    public Optional<UserSnapshot> findByUsername(String username) {
+        Long userId = userIdByUsernameCache.get(username, name -> userRepository.findIdByUsername(name).orElse(null));
+        return userId != null ? findById(userId) : Optional.empty();
+    }
+
+    /**
+     * Referência gerenciada (sem SELECT) para associar a entidades ou usar como parâmetro de consulta.
+     * O usuário autenticado da requisição não é conferido de novo; fora da requisição (ex.: importação de
+     * extratos) a existência é confirmada pelo cache.
+     */
+    public User getReference(Long userId) {
+        if (!authenticatedUserContext.isCurrentUser(userId) && findById(userId).isEmpty()) {
+            throw new IllegalArgumentException("Usuário não encontrado com o ID: " + userId);
+        }
+        return userRepository.getReferenceById(userId);
+    }
+
+    public void invalidate(Long userId, String username) {
+        userSnapshotCache.invalidate(userId);
+        userIdByUsernameCache.invalidate(username);
+    }
+
+    // A versão de token faz parte do snapshot: o próximo login precisa emitir tokens com a versão nova
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        userSnapshotCache.invalidate(event.userId());
+    }
+
+    public Stats stats() {
+        return new Stats(userSnapshotCache.stats(), userIdByUsernameCache.stats());
+    }
+
+    public record Stats(BoundedTtlCache.CacheStats byId, BoundedTtlCache.CacheStats byUsername) {
+    }
+}
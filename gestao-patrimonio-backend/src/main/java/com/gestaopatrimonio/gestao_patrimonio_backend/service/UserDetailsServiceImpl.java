@@ -1,7 +1,6 @@
 package com.gestaopatrimonio.gestao_patrimonio_backend.service;
 
-import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
-import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.UserSnapshot;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -11,16 +10,18 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserCacheService userCacheService;
 
-    public UserDetailsServiceImpl(UserRepository userRepository){
-        this.userRepository = userRepository;
+    public UserDetailsServiceImpl(UserCacheService userCacheService){
+        this.userCacheService = userCacheService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws
             UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+        // Snapshot em cache; cada chamada recebe uma instância nova, destacada
+        return userCacheService.findByUsername(username)
+                .map(UserSnapshot::toUser)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + username));
     }
 
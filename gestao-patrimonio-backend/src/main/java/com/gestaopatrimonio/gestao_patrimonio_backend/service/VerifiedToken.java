@@ -0,0 +1,19 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import java.time.Instant;
+
+/**
+ * Claims de um JWT cuja assinatura e expiração já foram verificadas. Imutável: pode ser reaproveitado
+ * entre requisições com o mesmo token até {@code expiresAt}. {@code userId} e {@code tokenVersion} são null
+ * em tokens emitidos antes dessas claims.
+ */
+public record VerifiedToken(String subject, Long userId, Long tokenVersion, Instant issuedAt, Instant expiresAt) {
+
+    public boolean hasUserClaims() {
+        return userId != null && tokenVersion != null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
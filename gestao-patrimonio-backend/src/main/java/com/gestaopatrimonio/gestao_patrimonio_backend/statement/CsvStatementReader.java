@@ -0,0 +1,138 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * CSV com cabeçalho, lido linha a linha. O separador (; , ou tab) sai do cabeçalho e as colunas são achadas
+ * pelo nome, em português ou inglês. Campos entre aspas podem conter o separador, mas não quebras de linha.
+ */
+final class CsvStatementReader implements StatementReader {
+
+    private static final Set<String> DATE_COLUMNS = Set.of("date", "data", "dt", "data lancamento", "data movimento");
+    private static final Set<String> DESCRIPTION_COLUMNS = Set.of("description", "descricao", "historico", "memo", "lancamento", "estabelecimento");
+    private static final Set<String> AMOUNT_COLUMNS = Set.of("amount", "valor", "value", "valor (r$)");
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private final int dateColumn;
+    private final int descriptionColumn;
+    private final int amountColumn;
+    private long lineNumber;
+
+    CsvStatementReader(Reader source) throws IOException {
+        this.reader = new BufferedReader(source);
+        String header = nextNonBlankLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio.");
+        }
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        this.delimiter = detectDelimiter(header);
+        List<String> columns = split(header, delimiter);
+        this.dateColumn = indexOf(columns, DATE_COLUMNS, "data");
+        this.descriptionColumn = indexOf(columns, DESCRIPTION_COLUMNS, "descrição");
+        this.amountColumn = indexOf(columns, AMOUNT_COLUMNS, "valor");
+    }
+
+    @Override
+    public StatementLine next() throws IOException {
+        String line = nextNonBlankLine();
+        if (line == null) {
+            return null;
+        }
+        List<String> fields = split(line, delimiter);
+        int required = Math.max(dateColumn, Math.max(descriptionColumn, amountColumn));
+        if (fields.size() <= required) {
+            throw new StatementParseException(lineNumber, "Linha com " + fields.size() + " colunas; esperado ao menos " + (required + 1) + ".");
+        }
+        try {
+            return new StatementLine(lineNumber,
+                    StatementValues.parseDate(fields.get(dateColumn)),
+                    StatementValues.parseAmount(fields.get(amountColumn)),
+                    fields.get(descriptionColumn).trim());
+        } catch (IllegalArgumentException e) {
+            throw new StatementParseException(lineNumber, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String nextNonBlankLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    private static char detectDelimiter(String header) {
+        char best = ',';
+        long bestCount = -1;
+        for (char candidate : new char[]{';', ',', '\t'}) {
+            long count = header.chars().filter(c -> c == candidate).count();
+            if (count > bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    private static int indexOf(List<String> columns, Set<String> names, String label) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (names.contains(normalizeHeader(columns.get(i)))) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Cabeçalho CSV sem coluna de " + label + ".");
+    }
+
+    private static String normalizeHeader(String column) {
+        return Normalizer.normalize(column.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /** Separa uma linha respeitando aspas ("" dentro de aspas é uma aspa literal) **/
+    static List<String> split(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
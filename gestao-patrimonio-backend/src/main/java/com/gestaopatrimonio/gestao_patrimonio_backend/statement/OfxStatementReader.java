@@ -0,0 +1,152 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * OFX 1.x (SGML, tags folha sem fechamento) e 2.x (XML), lido tag a tag: só a transação corrente fica em memória,
+ * mesmo quando o banco manda o arquivo inteiro numa linha só. O cabeçalho antes de {@code <OFX>} é ignorado.
+ */
+final class OfxStatementReader implements StatementReader {
+
+    private final BufferedReader reader;
+    private final StringBuilder buffer = new StringBuilder();
+    private long transactionCount;
+    private Transaction current;
+    private String pendingTag;
+
+    OfxStatementReader(Reader source) {
+        this.reader = new BufferedReader(source);
+    }
+
+    @Override
+    public StatementLine next() throws IOException {
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                if (current != null) {
+                    // Transação anterior sem </STMTTRN>: fecha aqui e devolve, a nova segue no próximo next()
+                    Transaction finished = current;
+                    current = new Transaction(++transactionCount);
+                    return finished.toLine();
+                }
+                current = new Transaction(++transactionCount);
+            } else if (tag.equals("/STMTTRN")) {
+                if (current != null) {
+                    Transaction finished = current;
+                    current = null;
+                    return finished.toLine();
+                }
+            } else if (current != null && !tag.startsWith("/")) {
+                current.set(tag, readText());
+            }
+        }
+        if (current != null) {
+            Transaction finished = current;
+            current = null;
+            return finished.toLine();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /** Nome da próxima tag (com "/" se for de fechamento), ou null no fim do arquivo **/
+    private String nextTag() throws IOException {
+        if (pendingTag != null) {
+            String tag = pendingTag;
+            pendingTag = null;
+            return tag;
+        }
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            // texto fora de tag de interesse (cabeçalho, valores de tags ignoradas)
+        }
+        if (c == -1) {
+            return null;
+        }
+        return readTagName();
+    }
+
+    private String readTagName() throws IOException {
+        buffer.setLength(0);
+        int c;
+        while ((c = reader.read()) != -1 && c != '>') {
+            buffer.append((char) c);
+        }
+        return buffer.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Texto depois da tag até a próxima; a tag seguinte fica guardada para o próximo nextTag() **/
+    private String readText() throws IOException {
+        buffer.setLength(0);
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            buffer.append((char) c);
+        }
+        String text = buffer.toString().trim()
+                .replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+        if (c == '<') {
+            pendingTag = readTagName();
+        }
+        return text;
+    }
+
+    private static final class Transaction {
+
+        private final long position;
+        private String posted;
+        private String amount;
+        private String name;
+        private String memo;
+
+        private Transaction(long position) {
+            this.position = position;
+        }
+
+        private void set(String tag, String value) {
+            switch (tag) {
+                case "DTPOSTED" -> posted = value;
+                case "TRNAMT" -> amount = value;
+                case "NAME" -> name = value;
+                case "MEMO" -> memo = value;
+                default -> {
+                    // FITID, TRNTYPE, CHECKNUM...: não entram no lançamento
+                }
+            }
+        }
+
+        private StatementLine toLine() {
+            if (posted == null || posted.length() < 8 || amount == null) {
+                throw new StatementParseException(position, "Transação OFX sem DTPOSTED ou TRNAMT.");
+            }
+            String description = describe();
+            if (description.isEmpty()) {
+                throw new StatementParseException(position, "Transação OFX sem NAME nem MEMO.");
+            }
+            try {
+                // DTPOSTED: yyyyMMdd seguido opcionalmente de hora e fuso; só a data interessa
+                return new StatementLine(position,
+                        StatementValues.parseDate(posted.substring(0, 8)),
+                        StatementValues.parseAmount(amount),
+                        description);
+            } catch (IllegalArgumentException e) {
+                throw new StatementParseException(position, e.getMessage());
+            }
+        }
+
+        private String describe() {
+            String trimmedName = name != null ? name.trim() : "";
+            String trimmedMemo = memo != null ? memo.trim() : "";
+            if (trimmedName.isEmpty() || trimmedName.equalsIgnoreCase(trimmedMemo)) {
+                return trimmedMemo;
+            }
+            return trimmedMemo.isEmpty() ? trimmedName : trimmedName + " " + trimmedMemo;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.Optional;
+
+public enum StatementFormat {
+    CSV,
+    OFX;
+
+    public StatementReader open(Reader reader) throws IOException {
+        return this == CSV ? new CsvStatementReader(reader) : new OfxStatementReader(reader);
+    }
+
+    /** Formato pela extensão do arquivo enviado (.csv, .ofx/.qfx) **/
+    public static Optional<StatementFormat> fromFileName(String fileName) {
+        if (fileName == null) {
+            return Optional.empty();
+        }
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return Optional.of(CSV);
+        }
+        if (lower.endsWith(".ofx") || lower.endsWith(".qfx")) {
+            return Optional.of(OFX);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,11 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.statement;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Uma transação do extrato. {@code amount} vem com sinal: negativo é gasto, positivo é lucro.
+ * {@code position} é a linha do CSV ou a ordem da transação no OFX, para o relatório de erros.
+ */
+public record StatementLine(long position, LocalDate date, BigDecimal amount, String description) {
+}
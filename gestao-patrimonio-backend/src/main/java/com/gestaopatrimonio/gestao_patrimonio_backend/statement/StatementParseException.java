@@ -0,0 +1,18 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.statement;
+
+/**
+ * Linha do extrato que não pôde ser lida; a leitura continua na próxima.
+ */
+public class StatementParseException extends RuntimeException {
+
+    private final long position;
+
+    public StatementParseException(long position, String message) {
+        super(message);
+        this.position = position;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,13 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.statement;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Leitura incremental de um extrato: uma transação por chamada, sem carregar o arquivo em memória.
+ */
+public interface StatementReader extends Closeable {
+
+    /** Próxima transação, ou null no fim. Linha malformada lança {@link StatementParseException} e a leitura pode seguir **/
+    StatementLine next() throws IOException;
+}
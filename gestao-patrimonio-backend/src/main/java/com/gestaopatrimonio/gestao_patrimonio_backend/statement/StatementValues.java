@@ -0,0 +1,59 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.statement;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Conversão dos campos de texto dos extratos: datas em ISO ou dd/MM/yyyy e valores com vírgula ou ponto decimal.
+ */
+final class StatementValues {
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.BASIC_ISO_DATE
+    );
+
+    private StatementValues() {
+    }
+
+    static LocalDate parseDate(String text) {
+        String value = text.trim();
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // tenta o próximo formato
+            }
+        }
+        throw new IllegalArgumentException("Data inválida: " + value);
+    }
+
+    /** "1.234,56", "1,234.56", "-12,30", "R$ 10" e "(15.00)" (negativo contábil) **/
+    static BigDecimal parseAmount(String text) {
+        String value = text.trim().replace("R$", "").replace(" ", "").replace("\u00A0", "");
+        boolean negative = false;
+        if (value.startsWith("(") && value.endsWith(")")) {
+            negative = true;
+            value = value.substring(1, value.length() - 1);
+        }
+        int lastComma = value.lastIndexOf(',');
+        int lastDot = value.lastIndexOf('.');
+        // O separador que aparece por último é o decimal; o outro é de milhar
+        if (lastComma > lastDot) {
+            value = value.replace(".", "").replace(',', '.');
+        } else if (lastDot > lastComma) {
+            value = value.replace(",", "");
+        }
+        try {
+            BigDecimal amount = new BigDecimal(value);
+            return negative ? amount.negate() : amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido: " + text.trim());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend;
+
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Registra o SQL emitido pelo Hibernate nos testes. Ativado por
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=} + {@link #CLASS_NAME};
+ * o Hibernate instancia a classe pelo nome, por isso o estado é estático.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    public static final String CLASS_NAME = "com.gestaopatrimonio.gestao_patrimonio_backend.SqlStatementRecorder";
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void clear() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return List.copyOf(STATEMENTS);
+        }
+    }
+
+    public static long selectsFrom(String table) {
+        return statements().stream()
+                .map(SqlStatementRecorder::normalized)
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from " + table + " "))
+                .count();
+    }
+
+    public static long count(String prefix) {
+        return statements().stream().map(SqlStatementRecorder::normalized).filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    /**
+     * Cada statement registrado como "verbo tabela" (ex.: "update category_totals"), na ordem em que foi enviado.
+     * Busca de valores de sequence fica de fora: com allocationSize ela só acontece quando o bloco de ids acaba.
+     */
+    public static List<String> summaries() {
+        List<String> summaries = new ArrayList<>();
+        for (String statement : statements()) {
+            String sql = normalized(statement).trim();
+            if (sql.contains("next value for")) {
+                continue;
+            }
+            String verb = sql.substring(0, sql.indexOf(' '));
+            String tableMarker = switch (verb) {
+                case "insert" -> "insert into ";
+                case "update" -> "update ";
+                case "delete" -> "delete from ";
+                default -> " from ";
+            };
+            int start = sql.indexOf(tableMarker) + tableMarker.length();
+            int end = start;
+            while (end < sql.length() && sql.charAt(end) != ' ' && sql.charAt(end) != '(') {
+                end++;
+            }
+            summaries.add(verb + " " + sql.substring(start, end));
+        }
+        return summaries;
+    }
+
+    /** Último SELECT sobre a tabela, como foi enviado ao banco (com os parâmetros em ?) **/
+    public static String lastSelectFrom(String table) {
+        List<String> statements = statements();
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            String sql = normalized(statements.get(i));
+            if (sql.startsWith("select") && sql.contains(" from " + table + " ")) {
+                return statements.get(i);
+            }
+        }
+        throw new AssertionError("Nenhum SELECT em " + table + " registrado");
+    }
+
+    /**
+     * Plano do H2 para um SQL registrado. Os parâmetros vão nulos: o H2 escolhe o índice ao preparar a consulta,
+     * não pelos valores.
+     */
+    public static String explain(Session session, String sql) {
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    explain.setObject(i, null);
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private static String normalized(String sql) {
+        return sql.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,96 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.benchmark;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.CentsByKeyAccumulator;
+import com.gestaopatrimonio.gestao_patrimonio_backend.aggregation.MoneyCents;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compara a agregação antiga (stream + groupingBy por entidade Category + BigDecimal::add) com o acumulador
+ * em centavos. Rodar com o perfil de alocação para ver a diferença de lixo por operação:
+ *
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MoneyAggregationBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyAggregationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int entries;
+
+    @Param({"20"})
+    public int categories;
+
+    private List<ExpenseEntry> ledger;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Category> categoryList = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            Category category = new Category("category-" + i, "EXPENSE", null);
+            category.setId((long) i + 1);
+            categoryList.add(category);
+        }
+        ledger = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(1_000_000), 2);
+            ExpenseEntry entry = new ExpenseEntry("entry-" + i, amount, LocalDate.of(2024, 1, 1), null,
+                    categoryList.get(random.nextInt(categories)));
+            entry.setId((long) i + 1);
+            ledger.add(entry);
+        }
+    }
+
+    @Benchmark
+    public void streamGroupingByBigDecimal(Blackhole blackhole) {
+        Map<Category, BigDecimal> byCategory = ledger.stream()
+                .collect(Collectors.groupingBy(
+                        ExpenseEntry::getCategory,
+                        Collectors.reducing(BigDecimal.ZERO, ExpenseEntry::getAmount, BigDecimal::add)
+                ));
+        BigDecimal total = ledger.stream()
+                .map(ExpenseEntry::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        blackhole.consume(byCategory);
+        blackhole.consume(total);
+    }
+
+    @Benchmark
+    public void centsAccumulator(Blackhole blackhole) {
+        CentsByKeyAccumulator accumulator = new CentsByKeyAccumulator(categories);
+        for (ExpenseEntry entry : ledger) {
+            accumulator.add(entry.getCategory().getId(), MoneyCents.toCents(entry.getAmount()));
+        }
+        blackhole.consume(accumulator.totalCents());
+        blackhole.consume(accumulator);
+    }
+}
@@ -0,0 +1,145 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.SqlStatementRecorder;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryFilterRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntrySearchTerm;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Planos do H2 para cada forma de consulta gerada pela listagem filtrada: o SQL é o que o Hibernate gera a partir
+ * de EntrySpecifications (JOIN FETCH da categoria, id IN (subselect) da descrição, limit do findBy).
+ * Se a especificação ou um índice das entidades mudar, o plano volta a ser tableScan e o teste quebra.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlStatementRecorder.CLASS_NAME)
+class EntryFilterQueryPlanTest {
+
+    private static final int PAGE_SIZE = 50;
+    // A categoria entra por chave primária no join; o que não pode aparecer é varredura dos lançamentos
+    private static final String ENTRIES_SCAN = "EXPENSE_ENTRIES.tableScan";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExpenseEntryRepository expenseEntryRepository;
+
+    private Long userId;
+    private List<Long> categoryIds;
+
+    @BeforeEach
+    void seed() {
+        User user = entityManager.persist(new User("plan-user", "x"));
+        User otherUser = entityManager.persist(new User("plan-other", "x"));
+        userId = user.getId();
+
+        categoryIds = new ArrayList<>();
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Category category = entityManager.persist(new Category("categoria " + i, "EXPENSE", user));
+            categories.add(category);
+            categoryIds.add(category.getId());
+        }
+        Category otherCategory = entityManager.persist(new Category("outra", "EXPENSE", otherUser));
+
+        String[] descriptions = {"mercado do bairro", "farmacia", "aluguel", "mercado central", "posto gasolina"};
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        for (int i = 0; i < 600; i++) {
+            Category category = categories.get(i % categories.size());
+            String description = descriptions[i % descriptions.length];
+            ExpenseEntry entry = entityManager.persist(new ExpenseEntry(description, BigDecimal.valueOf(5 + (i * 37L) % 900),
+                    start.plusDays(i), user, category));
+            for (String term : description.split(" ")) {
+                entityManager.persist(new EntrySearchTerm(userId, EntryKind.EXPENSE, entry.getId(), category.getId(), term));
+            }
+            entityManager.persist(new ExpenseEntry("outro", BigDecimal.TEN, start.plusDays(i), otherUser, otherCategory));
+        }
+        entityManager.flush();
+        entityManager.getEntityManager().createNativeQuery("ANALYZE").executeUpdate();
+    }
+
+    @Test
+    void dateRangeWithCursorUsesUserDateIndex() {
+        EntryFilterRequest filter = new EntryFilterRequest();
+        filter.setFrom(LocalDate.of(2022, 3, 1));
+        filter.setTo(LocalDate.of(2022, 6, 1));
+
+        assertThat(explainFilter(filter)).contains("IDX_EXPENSE_ENTRIES_USER_DATE_ID").doesNotContain(ENTRIES_SCAN);
+    }
+
+    @Test
+    void categorySetUsesUserCategoryIndex() {
+        EntryFilterRequest filter = new EntryFilterRequest();
+        filter.setCategoryIds(List.of(categoryIds.get(1), categoryIds.get(4)));
+
+        assertThat(explainFilter(filter)).contains("IDX_EXPENSE_ENTRIES_USER_CATEGORY_DATE_ID").doesNotContain(ENTRIES_SCAN);
+    }
+
+    @Test
+    void categorySetWithDateRangeUsesUserCategoryIndex() {
+        EntryFilterRequest filter = new EntryFilterRequest();
+        filter.setFrom(LocalDate.of(2022, 3, 1));
+        filter.setCategoryIds(List.of(categoryIds.get(1), categoryIds.get(4)));
+
+        assertThat(explainFilter(filter)).contains("IDX_EXPENSE_ENTRIES_USER_CATEGORY_DATE_ID").doesNotContain(ENTRIES_SCAN);
+    }
+
+    @Test
+    void amountRangeUsesUserAmountIndex() {
+        EntryFilterRequest filter = new EntryFilterRequest();
+        filter.setMinAmount(BigDecimal.valueOf(100));
+        filter.setMaxAmount(BigDecimal.valueOf(200));
+
+        assertThat(explainFilter(filter)).contains("IDX_EXPENSE_ENTRIES_USER_AMOUNT_ID").doesNotContain(ENTRIES_SCAN);
+    }
+
+    @Test
+    void amountAndDateRangeUseARangeIndex() {
+        EntryFilterRequest filter = new EntryFilterRequest();
+        filter.setFrom(LocalDate.of(2022, 3, 1));
+        filter.setMinAmount(BigDecimal.valueOf(100));
+        filter.setMaxAmount(BigDecimal.valueOf(200));
+
+        assertThat(explainFilter(filter)).containsAnyOf("IDX_EXPENSE_ENTRIES_USER_AMOUNT_ID", "IDX_EXPENSE_ENTRIES_USER_DATE_ID")
+                .doesNotContain(ENTRIES_SCAN);
+    }
+
+    @Test
+    void descriptionUsesSearchTermIndex() {
+        EntryFilterRequest filter = new EntryFilterRequest();
+        filter.setQ("merc");
+
+        assertThat(explainFilter(filter)).contains("IDX_ENTRY_SEARCH_TERMS_USER_TERM")
+                .doesNotContain(ENTRIES_SCAN, "ENTRY_SEARCH_TERMS.tableScan");
+    }
+
+    /**
+     * Roda a mesma consulta de ExpenseEntryService.getExpenseEntriesFiltered (especificação, ordem e limit do findBy),
+     * captura o SQL que o Hibernate enviou e pede o plano dele.
+     */
+    private String explainFilter(EntryFilterRequest filter) {
+        EntryCursor position = filter.getTo() != null ? EntryCursor.start(filter.getTo()) : null;
+        Specification<ExpenseEntry> spec = EntrySpecifications.of(userId, EntryKind.EXPENSE, filter, position);
+        SqlStatementRecorder.clear();
+        expenseEntryRepository.findBy(spec, query -> query.sortBy(EntrySpecifications.PAGE_ORDER).limit(PAGE_SIZE + 1).all());
+        String sql = SqlStatementRecorder.lastSelectFrom("expense_entries");
+        return SqlStatementRecorder.explain(entityManager.getEntityManager().unwrap(Session.class), sql);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.SqlStatementRecorder;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.entry.EntryFilterRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.Category;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.EntryKind;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.ExpenseEntryRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset das listagens paginadas: a data do cursor precisa ser condição do índice (user_id, date, id), não só filtro
+ * aplicado depois. Sem o limite superior no índice, a página N percorre todas as linhas das páginas anteriores.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlStatementRecorder.CLASS_NAME)
+class EntryPageQueryPlanTest {
+
+    private static final String USER_DATE_INDEX = "IDX_EXPENSE_ENTRIES_USER_DATE_ID";
+    private static final EntryCursor DEEP_PAGE = new EntryCursor(LocalDate.of(2022, 3, 1), 1L);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExpenseEntryRepository expenseEntryRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        User user = entityManager.persist(new User("page-plan-user", "x"));
+        userId = user.getId();
+        Category category = entityManager.persist(new Category("categoria", "EXPENSE", user));
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        for (int i = 0; i < 400; i++) {
+            entityManager.persist(new ExpenseEntry("lançamento " + i, BigDecimal.TEN, start.plusDays(i), user, category));
+        }
+        entityManager.flush();
+        entityManager.getEntityManager().createNativeQuery("ANALYZE").executeUpdate();
+    }
+
+    @Test
+    void pageByUserBoundsTheIndexScanByCursorDate() {
+        SqlStatementRecorder.clear();
+        expenseEntryRepository.findPageByUser(userId, LocalDate.of(2000, 1, 1), DEEP_PAGE.date(), DEEP_PAGE.id(), PageRequest.of(0, 51));
+
+        assertThat(indexCondition(explainLastSelect(), USER_DATE_INDEX)).contains("DATE <=");
+    }
+
+    @Test
+    void filteredPageBoundsTheIndexScanByCursorDate() {
+        Specification<ExpenseEntry> spec = EntrySpecifications.of(userId, EntryKind.EXPENSE, new EntryFilterRequest(), DEEP_PAGE);
+        SqlStatementRecorder.clear();
+        expenseEntryRepository.findBy(spec, query -> query.sortBy(EntrySpecifications.PAGE_ORDER).limit(51).all());
+
+        assertThat(indexCondition(explainLastSelect(), USER_DATE_INDEX)).contains("DATE <=");
+    }
+
+    private String explainLastSelect() {
+        String sql = SqlStatementRecorder.lastSelectFrom("expense_entries");
+        return SqlStatementRecorder.explain(entityManager.getEntityManager().unwrap(Session.class), sql);
+    }
+
+    // O H2 escreve as condições atendidas pelo índice no comentário do plano: /* PUBLIC.INDICE: COL = ?1 AND ... */
+    private static String indexCondition(String plan, String index) {
+        int start = plan.indexOf(index + ":");
+        assertThat(start).as("índice %s no plano:%n%s", index, plan).isGreaterThanOrEqualTo(0);
+        int end = plan.indexOf("*/", start);
+        return plan.substring(start + index.length() + 1, end).replace("\"", "");
+    }
+}
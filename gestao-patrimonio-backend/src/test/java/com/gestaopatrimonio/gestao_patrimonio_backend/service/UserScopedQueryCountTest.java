@@ -0,0 +1,155 @@
+package com.gestaopatrimonio.gestao_patrimonio_backend.service;
+
+import com.gestaopatrimonio.gestao_patrimonio_backend.SqlStatementRecorder;
+import com.gestaopatrimonio.gestao_patrimonio_backend.dto.category.CategoryRequest;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.ExpenseEntry;
+import com.gestaopatrimonio.gestao_patrimonio_backend.model.User;
+import com.gestaopatrimonio.gestao_patrimonio_backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Statements por escrita com o usuário autenticado: nenhum SELECT em users, a posse conferida na mesma consulta que
+ * carrega a entrada ou a categoria, e um statement por tabela derivada. A lista completa é conferida, para que
+ * qualquer statement a mais no caminho de escrita quebre o teste.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "application.security.jwt.secret-key=AbCdefGhIjKlMnOpQrStUvWxYz0123456789eaBcDeFgHiJkLmNoPqRsTuVwXyZ0123456789",
+        "application.security.jwt.expiration=86400000",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlStatementRecorder.CLASS_NAME
+})
+class UserScopedQueryCountTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ExpenseEntryService expenseEntryService;
+
+    private Long userId;
+    private Long categoryId;
+
+    @BeforeEach
+    void authenticate() {
+        User user = userRepository.save(new User("count-" + UUID.randomUUID(), "x"));
+        userId = user.getId();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(User.authenticated(userId, user.getUsername()), null, List.of()));
+        categoryId = categoryService.createCategory(expenseCategory("Mercado"), userId).getId();
+        // Primeira escrita aquece sequências e caches; a contagem vale para as seguintes
+        expenseEntryService.createExpenseEntry(userId, categoryId, newEntry());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createSelectsOnlyTheOwnedCategory() {
+        SqlStatementRecorder.clear();
+        expenseEntryService.createExpenseEntry(userId, categoryId, newEntry());
+
+        assertThat(SqlStatementRecorder.summaries()).containsExactlyInAnyOrder(
+                "select categories",
+                "insert expense_entries",
+                "update category_totals",
+                "update monthly_rollups",
+                "insert entry_search_terms",
+                "update users",  // data_version (ETag)
+                "update users"); // snapshots_dirty_from
+    }
+
+    @Test
+    void updateLoadsEntryAndCategoryInOneSelect() {
+        Long entryId = expenseEntryService.createExpenseEntry(userId, categoryId, newEntry()).getId();
+
+        SqlStatementRecorder.clear();
+        ExpenseEntry changes = newEntry();
+        changes.setAmount(new BigDecimal("42.00"));
+        expenseEntryService.updateExpenseEntry(entryId, userId, categoryId, changes);
+
+        // Mesma categoria e mesmo mês: um UPDATE em cada agregado; a descrição é reindexada (delete + insert)
+        assertThat(SqlStatementRecorder.summaries()).containsExactlyInAnyOrder(
+                "select expense_entries",
+                "update expense_entries",
+                "update category_totals",
+                "update monthly_rollups",
+                "delete entry_search_terms",
+                "insert entry_search_terms",
+                "update users",  // data_version (ETag)
+                "update users"); // snapshots_dirty_from
+    }
+
+    @Test
+    void deleteIsOneSelectOneDeleteAndTheDerivedUpdates() {
+        Long entryId = expenseEntryService.createExpenseEntry(userId, categoryId, newEntry()).getId();
+
+        SqlStatementRecorder.clear();
+        expenseEntryService.deleteExpenseEntry(entryId, userId);
+
+        assertThat(SqlStatementRecorder.summaries()).containsExactlyInAnyOrder(
+                "select expense_entries",
+                "delete expense_entries",
+                "update category_totals",
+                "update monthly_rollups",
+                "delete entry_search_terms",
+                "update users",  // data_version (ETag)
+                "update users"); // snapshots_dirty_from
+    }
+
+    @Test
+    void createCategoryDoesNotSelectUser() {
+        SqlStatementRecorder.clear();
+        categoryService.createCategory(expenseCategory("Farmácia"), userId);
+
+        assertThat(SqlStatementRecorder.selectsFrom("users")).isZero();
+    }
+
+    @Test
+    void categoryOfAnotherUserIsRejected() {
+        User other = userRepository.save(new User("other-" + UUID.randomUUID(), "x"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(User.authenticated(other.getId(), other.getUsername()), null, List.of()));
+        Long foreignCategoryId = categoryService.createCategory(expenseCategory("Alheia"), other.getId()).getId();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(User.authenticated(userId, "count"), null, List.of()));
+
+        assertThatThrownBy(() -> expenseEntryService.createExpenseEntry(userId, foreignCategoryId, newEntry()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CategoryRequest expenseCategory(String name) {
+        CategoryRequest request = new CategoryRequest();
+        request.setName(name);
+        request.setType("EXPENSE");
+        return request;
+    }
+
+    // Descrição de um termo só: um INSERT em entry_search_terms, com ou sem batch JDBC
+    private static ExpenseEntry newEntry() {
+        ExpenseEntry entry = new ExpenseEntry();
+        entry.setDescription("mercado");
+        entry.setAmount(new BigDecimal("10.00"));
+        entry.setDate(LocalDate.of(2024, 5, 10));
+        return entry;
+    }
+}